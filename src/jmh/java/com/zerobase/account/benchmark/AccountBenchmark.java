@@ -0,0 +1,45 @@
+package com.zerobase.account.benchmark;
+
+import com.zerobase.account.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 생성 (계좌번호 할당 + 저장)
+ * 사용자당 계좌가 10개로 제한되므로 스레드마다 10개씩 만들고 새 사용자로 바꾼다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class AccountBenchmark {
+  private ConfigurableApplicationContext context;
+  private AccountService accountService;
+
+  @State(Scope.Thread)
+  public static class UserState {
+    private Long userId;
+    private int created;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start();
+    accountService = context.getBean(AccountService.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Object createdAccount(UserState user) {
+    if (user.created++ % BenchmarkContext.ACCOUNTS_PER_USER == 0) {
+      user.userId = BenchmarkContext.createUser(context, "bench").getAccountUserId();
+    }
+    return accountService.createdAccount(user.userId, 10000L);
+  }
+}
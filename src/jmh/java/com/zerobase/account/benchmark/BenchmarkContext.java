@@ -0,0 +1,59 @@
+package com.zerobase.account.benchmark;
+
+import com.zerobase.account.AccountApplication;
+import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.AccountDto;
+import com.zerobase.account.repository.AccountUserRepository;
+import com.zerobase.account.service.AccountService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 스프링 컨텍스트 (H2 + embedded Redis, 웹 서버 없이)
+ */
+final class BenchmarkContext {
+  // 사용자당 최대 계좌 수 (MAX_ACCOUNT_PER_USER_10)
+  static final int ACCOUNTS_PER_USER = 10;
+
+  record BenchmarkAccount(Long userId, String accountNumber) {
+  }
+
+  private BenchmarkContext() {
+  }
+
+  static ConfigurableApplicationContext start(String... properties) {
+    return new SpringApplicationBuilder(AccountApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.jpa.properties.hibernate.show_sql=false",
+            "spring.jpa.properties.hibernate.format_sql=false",
+            "spring.h2.console.enabled=false",
+            "logging.level.root=WARN")
+        .properties(properties)
+        .run();
+  }
+
+  static AccountUser createUser(ConfigurableApplicationContext context, String name) {
+    return context.getBean(AccountUserRepository.class)
+        .save(AccountUser.builder().name(name).build());
+  }
+
+  static List<BenchmarkAccount> createAccounts(
+      ConfigurableApplicationContext context, int count, long balance) {
+    AccountService accountService = context.getBean(AccountService.class);
+    List<BenchmarkAccount> accounts = new ArrayList<>(count);
+    AccountUser user = null;
+    for (int i = 0; i < count; i++) {
+      if (i % ACCOUNTS_PER_USER == 0) {
+        user = createUser(context, "bench-" + i);
+      }
+      AccountDto account = accountService.createdAccount(user.getAccountUserId(), balance);
+      accounts.add(new BenchmarkAccount(user.getAccountUserId(), account.getAccountNumber()));
+    }
+    return accounts;
+  }
+}
@@ -0,0 +1,63 @@
+package com.zerobase.account.benchmark;
+
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.service.LockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LockService getLock/unLock 왕복
+ * single : 모든 스레드가 같은 계좌번호 (경합)
+ * many   : 임의의 계좌번호 (경합 거의 없음)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LockBenchmark {
+  private static final int ACCOUNTS = 100_000;
+
+  @Param({"REDIS", "LOCAL"})
+  public String lockBackend;
+
+  private ConfigurableApplicationContext context;
+  private LockService lockService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("account.lock.backend=" + lockBackend);
+    lockService = context.getBean(LockService.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  private Object lockAndUnlock(String accountNumber) {
+    try {
+      lockService.getLock(accountNumber);
+    } catch (AccountException e) {
+      return e;
+    }
+    try {
+      return accountNumber;
+    } finally {
+      lockService.unLock(accountNumber);
+    }
+  }
+
+  @Benchmark
+  public Object lockSingleKey() {
+    return lockAndUnlock("1000000008");
+  }
+
+  @Benchmark
+  public Object lockManyKeys() {
+    return lockAndUnlock(String.valueOf(
+        1_000_000_000L + ThreadLocalRandom.current().nextInt(ACCOUNTS)));
+  }
+}
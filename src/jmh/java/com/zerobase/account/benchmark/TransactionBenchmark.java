@@ -0,0 +1,115 @@
+package com.zerobase.account.benchmark;
+
+import com.zerobase.account.benchmark.BenchmarkContext.BenchmarkAccount;
+import com.zerobase.account.controller.TransactionController;
+import com.zerobase.account.dto.CancelBalance;
+import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.service.TransactionService;
+import com.zerobase.account.type.BalanceMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 사용/취소/조회 (TransactionController 를 직접 호출해 @AccountLock 까지 포함)
+ * single : 모든 스레드가 한 계좌를 사용 (락 경합)
+ * many   : 스레드마다 ACCOUNTS 개 중 임의의 계좌를 사용
+ * 락 획득 실패 등 AccountException 은 완료된 요청으로 센다.
+ * LEDGER, EVENT 는 단일 노드 전용이므로 로컬 락(LOCAL)으로 띄운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class TransactionBenchmark {
+  private static final int ACCOUNTS = 1000;
+  private static final int QUERY_TRANSACTIONS = 1000;
+  private static final long INITIAL_BALANCE = 1_000_000_000_000L;
+  private static final long AMOUNT = 100L;
+
+  @Param({"LOCK", "LEDGER", "ATOMIC", "OPTIMISTIC", "EVENT"})
+  public String balanceMode;
+
+  private ConfigurableApplicationContext context;
+  private TransactionController transactionController;
+  private TransactionService transactionService;
+  private List<BenchmarkAccount> accounts;
+  private List<String> transactionIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    boolean ledger = BalanceMode.valueOf(balanceMode).isLedger();
+    context = BenchmarkContext.start("account.balance.mode=" + balanceMode,
+        "account.lock.backend=" + (ledger ? "LOCAL" : "REDIS"));
+    transactionController = context.getBean(TransactionController.class);
+    transactionService = context.getBean(TransactionService.class);
+    accounts = BenchmarkContext.createAccounts(context, ACCOUNTS, INITIAL_BALANCE);
+    transactionIds = new ArrayList<>(QUERY_TRANSACTIONS);
+    for (int i = 0; i < QUERY_TRANSACTIONS; i++) {
+      transactionIds.add(use(accounts.get(i % ACCOUNTS)).getTransactionId());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  private BenchmarkAccount randomAccount() {
+    return accounts.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+  }
+
+  private UseBalance.Response use(BenchmarkAccount account) {
+    return transactionController.useBalance(
+        new UseBalance.Request(account.userId(), account.accountNumber(), AMOUNT));
+  }
+
+  private Object useAndCancel(BenchmarkAccount account) {
+    try {
+      UseBalance.Response used = use(account);
+      return transactionController.cancelBalance(new CancelBalance.Request(
+          used.getTransactionId(), account.accountNumber(), AMOUNT));
+    } catch (AccountException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object useBalanceSingleAccount() {
+    try {
+      return use(accounts.get(0));
+    } catch (AccountException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object useBalanceManyAccounts() {
+    try {
+      return use(randomAccount());
+    } catch (AccountException e) {
+      return e;
+    }
+  }
+
+  @Benchmark
+  public Object useAndCancelSingleAccount() {
+    return useAndCancel(accounts.get(0));
+  }
+
+  @Benchmark
+  public Object useAndCancelManyAccounts() {
+    return useAndCancel(randomAccount());
+  }
+
+  @Benchmark
+  public Object queryTransaction() {
+    return transactionService.queryTransaction(
+        transactionIds.get(ThreadLocalRandom.current().nextInt(QUERY_TRANSACTIONS)));
+  }
+}
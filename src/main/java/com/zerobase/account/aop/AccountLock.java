@@ -1,5 +1,7 @@
 package com.zerobase.account.aop;
 
+import com.zerobase.account.type.LockWaitPolicy;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,5 +9,11 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
+  // 락 대기 시간 (ms, QUEUE 일 때만 사용)
   long tryLockTime() default 500L;
+
+  // 락 유지 시간 (ms), 요청이 비정상 종료되어도 이 시간이 지나면 풀린다.
+  long leaseTime() default 15000L;
+
+  LockWaitPolicy waitPolicy() default LockWaitPolicy.QUEUE;
 }
@@ -0,0 +1,14 @@
+package com.zerobase.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더로 재시도 요청을 한 번만 처리하는 지점
+ * value 는 멱등 키의 범위(엔드포인트) 구분자
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+  String value();
+}
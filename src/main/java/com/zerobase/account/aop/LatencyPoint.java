@@ -0,0 +1,14 @@
+package com.zerobase.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 지연 주입 지점 (loadtest 프로파일에서만 동작)
+ * value 는 latency-injection.endpoints 의 키
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LatencyPoint {
+  String value();
+}
@@ -0,0 +1,29 @@
+package com.zerobase.account.aop;
+
+import com.zerobase.account.type.LockWaitPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * LockService 에 넘기는 락 대기/유지 정책 (ms)
+ */
+@Getter
+@AllArgsConstructor
+public class LockPolicy {
+  public static final LockPolicy DEFAULT =
+      new LockPolicy(1000L, 15000L, LockWaitPolicy.QUEUE);
+
+  private final long waitTime;
+  private final long leaseTime;
+  private final LockWaitPolicy waitPolicy;
+
+  public static LockPolicy from(AccountLock accountLock) {
+    return new LockPolicy(accountLock.tryLockTime(), accountLock.leaseTime(),
+        accountLock.waitPolicy());
+  }
+
+  // FAIL_FAST 는 대기 시간을 무시한다.
+  public long getEffectiveWaitTime() {
+    return waitPolicy == LockWaitPolicy.FAIL_FAST ? 0L : waitTime;
+  }
+}
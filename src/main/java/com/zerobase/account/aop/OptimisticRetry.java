@@ -0,0 +1,13 @@
+package com.zerobase.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 낙관적 락 충돌 시 재시도 지점 (account.balance.mode=OPTIMISTIC 에서만 동작)
+ * 재시도마다 새 트랜잭션이 되도록 @Transactional 메서드에 붙인다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface OptimisticRetry {
+}
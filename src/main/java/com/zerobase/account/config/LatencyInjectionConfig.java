@@ -0,0 +1,12 @@
+package com.zerobase.account.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("loadtest")
+@EnableConfigurationProperties(LatencyInjectionProperties.class)
+public class LatencyInjectionConfig {
+
+}
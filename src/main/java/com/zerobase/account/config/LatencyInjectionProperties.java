@@ -0,0 +1,35 @@
+package com.zerobase.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트용 지연 주입 설정
+ * 엔드포인트마다 percentile 구간별 지연 시간을 지정한다.
+ * ex) 50 -> 10ms, 99 -> 200ms, 100 -> 3s
+ *     : 요청의 50% 는 10ms, 49% 는 200ms, 나머지 1% 는 3초 지연
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "latency-injection")
+public class LatencyInjectionProperties {
+  private Map<String, List<Step>> endpoints = new HashMap<>();
+
+  @Getter
+  @Setter
+  public static class Step {
+    private double percentile;
+    private Duration delay = Duration.ZERO;
+  }
+
+  public List<Step> getSteps(String endpoint) {
+    return endpoints.getOrDefault(endpoint, new ArrayList<>());
+  }
+}
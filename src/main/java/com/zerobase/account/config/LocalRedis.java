@@ -2,10 +2,15 @@ package com.zerobase.account.config;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
+import java.io.IOException;
+import java.net.ServerSocket;
+
+@Slf4j
 @Configuration
 public class LocalRedis {
   @Value("${spring.data.redis.port}")
@@ -15,6 +20,11 @@ public class LocalRedis {
 
   @PostConstruct
   public void startRedis() {
+    // 같은 JVM 의 다른 컨텍스트(테스트 등)가 이미 띄운 경우 그 서버를 같이 쓴다.
+    if (isPortInUse(redisPort)) {
+      log.info("redis port {} is already in use. embedded redis is not started.", redisPort);
+      return;
+    }
     redisServer = new RedisServer(redisPort);
     redisServer.start();
   }
@@ -25,5 +35,11 @@ public class LocalRedis {
     }
   }
 
-
+  private boolean isPortInUse(int port) {
+    try (ServerSocket ignored = new ServerSocket(port)) {
+      return false;
+    } catch (IOException e) {
+      return true;
+    }
+  }
 }
@@ -0,0 +1,39 @@
+package com.zerobase.account.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * 요청마다 가상 스레드로 처리한다. (account.virtual-threads.enabled=true, JDK 21)
+ * Redis 락 대기 동안에는 캐리어 스레드를 놓아주므로 락을 기다리는 요청 수가
+ * Tomcat 스레드 풀 크기에 묶이지 않는다.
+ * 단, JDK 21 에서는 synchronized 안에서 블로킹하면 가상 스레드가 캐리어에 고정(pinning)된다.
+ * H2 드라이버와 Hibernate 의 JDBC 경로는 내부에서 synchronized 를 쓰므로
+ * DB 호출 동안에는 캐리어가 고정되고, DB 를 쓰는 구간의 동시성은 여전히
+ * 캐리어 수(-Djdk.virtualThreadScheduler.parallelism)와 커넥션 풀 크기에 묶인다.
+ * 우리 코드의 요청 경로 락은 synchronized 대신 ReentrantLock 을 사용한다.
+ * 고정 여부는 -Djdk.tracePinnedThreads=short 로 확인한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "account.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler ->
+        protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  // @Async, MVC 비동기 처리도 가상 스레드로 실행한다.
+  @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+  }
+}
@@ -1,6 +1,6 @@
 package com.zerobase.account.controller;
 
-import com.zerobase.account.domain.Account;
+import com.zerobase.account.dto.AccountDetail;
 import com.zerobase.account.dto.AccountInfo;
 import com.zerobase.account.dto.CreateAccount;
 import com.zerobase.account.dto.DeleteAccount;
@@ -12,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static com.zerobase.account.type.ErrorCode.INVALID_REQUEST;
 
@@ -30,7 +29,7 @@ public class AccountController {
   }
 
   @GetMapping("/account/{id}")
-  public Account getAccount(@PathVariable("id") Long id) {
+  public AccountDetail getAccount(@PathVariable("id") Long id) {
     return accountService.getAccount(id);
   }
 
@@ -48,10 +47,6 @@ public class AccountController {
     if (userId < 0) {
       throw new AccountException(INVALID_REQUEST ,INVALID_REQUEST.getDescription());
     }
-    return accountService.getAccountByUserId(userId)
-        .stream().map(accountDto -> AccountInfo.builder()
-            .accountNumber(accountDto.getAccountNumber())
-            .balance(accountDto.getBalance()).build())
-        .collect(Collectors.toList());
+    return accountService.getAccountByUserId(userId);
   }
 }
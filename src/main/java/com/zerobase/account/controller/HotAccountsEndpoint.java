@@ -0,0 +1,35 @@
+package com.zerobase.account.controller;
+
+import com.zerobase.account.service.HotAccountSketch;
+import com.zerobase.account.service.LockMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/hotaccounts?limit=10
+ * 락을 가장 많이 요청한 계좌 목록
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+  private static final int DEFAULT_LIMIT = 10;
+
+  private final LockMetrics lockMetrics;
+
+  @ReadOperation
+  public List<HotAccountSketch.HotAccount> hotAccounts(@Nullable Integer limit) {
+    if (limit != null && limit < 0) {
+      // 400 으로 응답한다.
+      throw new InvalidEndpointRequestException("invalid limit : " + limit,
+          "limit must not be negative");
+    }
+    return lockMetrics.hotAccounts(limit == null ? DEFAULT_LIMIT : limit);
+  }
+}
@@ -1,35 +1,55 @@
 package com.zerobase.account.controller;
 
 import com.zerobase.account.aop.AccountLock;
+import com.zerobase.account.aop.Idempotent;
+import com.zerobase.account.aop.LatencyPoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zerobase.account.dto.CancelBalance;
+import com.zerobase.account.dto.HistoryCursor;
 import com.zerobase.account.dto.QueryTransactionResponse;
 import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.dto.UseBalanceBatch;
 import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.service.TransactionBatchService;
+import com.zerobase.account.service.TransactionHistoryService;
 import com.zerobase.account.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * 잔액 관련 컨트롤러
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 잔액 일괄 사용
+ * 5. 계좌 거래 내역
  */
 @RestController @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/transaction")
 public class TransactionController {
   private final TransactionService transactionService;
+  private final TransactionBatchService transactionBatchService;
+  private final TransactionHistoryService transactionHistoryService;
+  private final ObjectMapper objectMapper;
 
   @PostMapping("/use")
+  @Idempotent("transaction-use")
   @AccountLock
+  @LatencyPoint("transaction-use")
   public UseBalance.Response useBalance(
       @Valid @RequestBody UseBalance.Request req
   ) {
     try {
-      Thread.sleep(3000L);
       return UseBalance.Response.from(transactionService.useBalance(req.getUserId(),
           req.getAccountNumber(), req.getAmount()));
     } catch (AccountException e) {
@@ -39,12 +59,25 @@ public class TransactionController {
           req.getAmount()
       );
       throw e;
-    } catch (InterruptedException e) {
-      throw new RuntimeException(e);
     }
   }
+  /**
+   * 여러 건의 잔액 사용을 한 번에 처리한다.
+   * 계좌별로 락을 한 번만 잡고, 요청 순서대로 처리한 결과를 건별로 돌려준다.
+   * 전체가 원자적이지 않다. 실패한 건은 F 와 에러 코드로 돌려주고 성공한 건은 그대로 둔다.
+   */
+  @PostMapping("/use/batch")
+  public UseBalanceBatch.Response useBalanceBatch(
+      @Valid @RequestBody UseBalanceBatch.Request req
+  ) {
+    return UseBalanceBatch.Response.from(
+        transactionBatchService.useBalances(req.getItems()));
+  }
+
   @PostMapping("/cancel")
-  @AccountLock
+  @Idempotent("transaction-cancel")
+  @AccountLock(tryLockTime = 1000L)
+  @LatencyPoint("transaction-cancel")
   public CancelBalance.Response cancelBalance(
       @Valid @RequestBody CancelBalance.Request req
   ) {
@@ -73,4 +106,40 @@ public class TransactionController {
         transactionService.queryTransaction(transactionId)
     );
   }
+
+  /**
+   * 계좌 거래 내역 (최신순)
+   * GET /transaction/history/1000000008?size=100&cursor={nextCursor}
+   * 행을 읽는 대로 응답에 쓰므로 전체 내역을 메모리에 올리지 않는다.
+   * {"transactions":[...], "nextCursor":"..."} (마지막 페이지면 nextCursor 는 null)
+   */
+  @GetMapping("/history/{accountNumber}")
+  public ResponseEntity<StreamingResponseBody> transactionHistory(
+      @PathVariable String accountNumber,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "100") int size
+  ) {
+    // 계좌/커서 오류는 응답을 쓰기 전에 확인한다.
+    Long accountId = transactionHistoryService.getAccountId(accountNumber);
+    HistoryCursor after = transactionHistoryService.decodeCursor(cursor);
+
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("transactions");
+        HistoryCursor next = transactionHistoryService.streamHistory(accountId, after, size,
+            transactionDto -> {
+              try {
+                generator.writeObject(QueryTransactionResponse.from(transactionDto));
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+        generator.writeEndArray();
+        generator.writeStringField("nextCursor", next == null ? null : next.encode());
+        generator.writeEndObject();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
 }
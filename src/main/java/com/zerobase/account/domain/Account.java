@@ -5,23 +5,32 @@ import com.zerobase.account.type.AccountStatus;
 import com.zerobase.account.type.ErrorCode;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
 
+import static org.hibernate.id.enhanced.SequenceStyleGenerator.SEQUENCE_PARAM;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = @Index(name = "ux_account_account_number",
+    columnList = "accountNumber", unique = true))
 public class Account extends BaseEntity {
-  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Id @GeneratedValue(generator = "account_seq")
+  @GenericGenerator(name = "account_seq", type = PooledSequenceGenerator.class,
+      parameters = @Parameter(name = SEQUENCE_PARAM, value = "account_seq"))
   private Long accountId;
 
   private String accountNumber;
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "account_user_id")
   private AccountUser accountUser;
   private Long balance;
   @CreatedDate
@@ -33,6 +42,10 @@ public class Account extends BaseEntity {
   @Enumerated(EnumType.STRING)
   private AccountStatus accountStatus;
 
+  // 낙관적 락 (OPTIMISTIC 모드의 충돌 감지, 다른 모드에서도 덮어쓰기 방지)
+  @Version
+  private Long version;
+
   public void useBalance(Long amount) {
     if (amount > balance) {
       throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
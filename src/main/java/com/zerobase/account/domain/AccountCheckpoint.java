@@ -0,0 +1,27 @@
+package com.zerobase.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 잔액 체크포인트
+ * (lastTransactionAt, lastTransactionId) 까지의 성공 거래를 반영한 잔액.
+ * 잔액 검증/재계산은 이 지점 이후의 거래만 다시 더한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class AccountCheckpoint extends BaseEntity {
+  @Id
+  private Long accountId;
+
+  private Long balance;
+  private LocalDateTime lastTransactionAt;
+  private Long lastTransactionId;
+}
@@ -2,16 +2,21 @@ package com.zerobase.account.domain;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import static org.hibernate.id.enhanced.SequenceStyleGenerator.SEQUENCE_PARAM;
 
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder @Entity
 public class AccountUser extends BaseEntity {
-  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Id @GeneratedValue(generator = "account_user_seq")
+  @GenericGenerator(name = "account_user_seq", type = PooledSequenceGenerator.class,
+      parameters = @Parameter(name = SEQUENCE_PARAM, value = "account_user_seq"))
   private Long accountUserId;
   private String name;
 }
@@ -0,0 +1,59 @@
+package com.zerobase.account.domain;
+
+/**
+ * 거래 키(long) <-> 외부에 보여주는 거래 아이디(Base62 문자열)
+ * 양수 long 은 최대 11자로 표현된다.
+ */
+public final class Base62 {
+  private static final char[] ALPHABET =
+      "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+  private static final int MAX_LENGTH = 11;
+
+  private Base62() {
+  }
+
+  public static String encode(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("negative value : " + value);
+    }
+    char[] buffer = new char[MAX_LENGTH];
+    int position = MAX_LENGTH;
+    do {
+      buffer[--position] = ALPHABET[(int) (value % 62)];
+      value /= 62;
+    } while (value > 0);
+    return new String(buffer, position, MAX_LENGTH - position);
+  }
+
+  public static long decode(String text) {
+    if (text == null || text.isEmpty() || text.length() > MAX_LENGTH) {
+      throw new IllegalArgumentException("invalid base62 : " + text);
+    }
+    long value = 0;
+    for (int i = 0; i < text.length(); i++) {
+      int digit = digit(text.charAt(i));
+      if (digit < 0) {
+        throw new IllegalArgumentException("invalid base62 : " + text);
+      }
+      try {
+        value = Math.addExact(Math.multiplyExact(value, 62), digit);
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("invalid base62 : " + text, e);
+      }
+    }
+    return value;
+  }
+
+  private static int digit(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'A' && c <= 'Z') {
+      return c - 'A' + 10;
+    }
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a' + 36;
+    }
+    return -1;
+  }
+}
@@ -4,31 +4,54 @@ import com.zerobase.account.type.TransactionResultType;
 import com.zerobase.account.type.TransactionType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
+import static org.hibernate.id.enhanced.SequenceStyleGenerator.SEQUENCE_PARAM;
+
 @Getter @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+    @Index(name = "ux_transaction_transaction_key",
+        columnList = "transactionKey", unique = true),
+    // 계좌별 거래 내역 조회 (최신순, keyset)
+    @Index(name = "ix_transaction_account_id_transaction_at",
+        columnList = "account_id, transactionAt, transactionId"),
+    // 거래 하나는 한 번만 취소된다.
+    @Index(name = "ux_transaction_canceled_transaction_id",
+        columnList = "canceled_transaction_id", unique = true)
+})
 public class Transaction extends BaseEntity{
 
-  @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Id @GeneratedValue(generator = "transaction_seq")
+  @GenericGenerator(name = "transaction_seq", type = PooledSequenceGenerator.class,
+      parameters = @Parameter(name = SEQUENCE_PARAM, value = "transaction_seq"))
   private Long transactionId;
   @Enumerated(EnumType.STRING)
   private TransactionType transactionType;
   @Enumerated(EnumType.STRING)
   private TransactionResultType transactionResultType;
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "account_id")
   private Account account;
   private Long amount;
   private Long balanceSnapshot;
 
-  private String transactionUUID;
+  // 외부 거래 아이디는 Base62(transactionKey)
+  private Long transactionKey;
   private LocalDateTime transactionAt;
 
+  // 취소(CANCEL) 거래가 취소한 원거래
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "canceled_transaction_id")
+  private Transaction canceledTransaction;
+
 
 }
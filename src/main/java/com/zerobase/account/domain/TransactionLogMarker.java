@@ -0,0 +1,33 @@
+package com.zerobase.account.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * 로컬 거래 로그에 기록된 거래가 DB 에 커밋되었다는 표시
+ * 잔액 변경과 같은 트랜잭션으로 저장되므로, 재시작시 결과를 모르는(PREPARED) 레코드는
+ * 이 표시가 있으면 커밋된 것이다. shipper 가 거래 내역을 옮긴 뒤에 지운다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class TransactionLogMarker implements Persistable<Long> {
+  @Id
+  private Long transactionKey;
+
+  @Override
+  public Long getId() {
+    return transactionKey;
+  }
+
+  // 항상 새로 넣으므로 merge 전 조회를 하지 않는다.
+  @Override
+  public boolean isNew() {
+    return true;
+  }
+}
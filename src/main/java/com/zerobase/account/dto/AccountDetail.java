@@ -0,0 +1,20 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.type.AccountStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 단건 조회 응답 (GET /account/{id})
+ * 리포지토리에서 필요한 컬럼만 바로 읽어 만든다.
+ */
+public record AccountDetail(
+    Long accountId,
+    Long userId,
+    String accountNumber,
+    Long balance,
+    AccountStatus accountStatus,
+    LocalDateTime registeredAt,
+    LocalDateTime unRegisteredAt
+) {
+}
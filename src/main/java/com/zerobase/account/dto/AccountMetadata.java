@@ -0,0 +1,16 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.type.AccountStatus;
+
+/**
+ * 계좌의 자주 바뀌지 않는 정보 (캐시용)
+ */
+public record AccountMetadata(Long accountId, Long ownerId, AccountStatus accountStatus) {
+
+  public static AccountMetadata fromEntity(Account account) {
+    return new AccountMetadata(account.getAccountId(),
+        account.getAccountUser().getAccountUserId(),
+        account.getAccountStatus());
+  }
+}
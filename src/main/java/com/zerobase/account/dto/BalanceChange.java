@@ -0,0 +1,20 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 재계산용 projection : 성공한 거래 한 건의 잔액 변화
+ */
+public record BalanceChange(
+    Long transactionId,
+    TransactionType transactionType,
+    Long amount,
+    Long balanceSnapshot,
+    LocalDateTime transactionAt
+) {
+  public long delta() {
+    return transactionType == TransactionType.CANCEL ? amount : -amount;
+  }
+}
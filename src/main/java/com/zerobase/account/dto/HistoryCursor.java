@@ -0,0 +1,35 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.domain.Base62;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 거래 내역 keyset 페이지 커서 : 마지막으로 내려준 거래의 (transactionAt, transactionId)
+ * 외부에는 "Base62(epoch 마이크로초)-Base62(transactionId)" 로 보여준다.
+ */
+public record HistoryCursor(LocalDateTime transactionAt, Long transactionId) {
+
+  public static HistoryCursor of(TransactionSummary transaction) {
+    return new HistoryCursor(transaction.transactionAt(), transaction.transactionId());
+  }
+
+  public String encode() {
+    long micros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), transactionAt);
+    return Base62.encode(micros) + "-" + Base62.encode(transactionId);
+  }
+
+  public static HistoryCursor decode(String text) {
+    int separator = text.indexOf('-');
+    if (separator < 0) {
+      throw new IllegalArgumentException("invalid cursor : " + text);
+    }
+    long micros = Base62.decode(text.substring(0, separator));
+    long transactionId = Base62.decode(text.substring(separator + 1));
+    LocalDateTime transactionAt = LocalDateTime.ofEpochSecond(micros / 1_000_000,
+        (int) (micros % 1_000_000) * 1_000, ZoneOffset.UTC);
+    return new HistoryCursor(transactionAt, transactionId);
+  }
+}
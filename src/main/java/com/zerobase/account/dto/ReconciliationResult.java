@@ -0,0 +1,20 @@
+package com.zerobase.account.dto;
+
+/**
+ * 계좌 하나의 잔액 검증 결과
+ * expectedBalance : 체크포인트 + 이후 거래로 다시 계산한 잔액
+ * snapshotMismatches : 거래 내역의 balanceSnapshot 이 다시 계산한 잔액과 다른 건수
+ * verified : 체크포인트가 있어 실제로 검증했는지 (없으면 맞다고도 틀리다고도 보지 않는다.)
+ */
+public record ReconciliationResult(
+    Long accountId,
+    Long expectedBalance,
+    Long actualBalance,
+    int replayed,
+    int snapshotMismatches,
+    boolean verified
+) {
+  public boolean isMatched() {
+    return verified && snapshotMismatches == 0 && expectedBalance.equals(actualBalance);
+  }
+}
@@ -1,7 +1,9 @@
 package com.zerobase.account.dto;
 
 import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Base62;
 import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.type.ErrorCode;
 import com.zerobase.account.type.TransactionResultType;
 import com.zerobase.account.type.TransactionType;
 import lombok.*;
@@ -23,15 +25,29 @@ public class TransactionDto {
   private String transactionId;
   private LocalDateTime transactionAt;
 
+  // 일괄 처리에서 실패한 경우의 사유
+  private ErrorCode errorCode;
+
   public static TransactionDto fromEntity(Transaction transaction) {
     return TransactionDto.builder()
         .accountNumber(transaction.getAccount().getAccountNumber())
         .transactionType(transaction.getTransactionType())
-        .transactionId(transaction.getTransactionUUID())
+        .transactionId(Base62.encode(transaction.getTransactionKey()))
         .account(transaction.getAccount())
         .amount(transaction.getAmount())
         .balanceSnapshot(transaction.getBalanceSnapshot())
         .transactionResultType(transaction.getTransactionResultType())
-        .transactionAt(LocalDateTime.now()).build();
+        .transactionAt(transaction.getTransactionAt()).build();
+  }
+
+  public static TransactionDto fromSummary(TransactionSummary summary) {
+    return TransactionDto.builder()
+        .accountNumber(summary.accountNumber())
+        .transactionType(summary.transactionType())
+        .transactionId(Base62.encode(summary.transactionKey()))
+        .amount(summary.amount())
+        .balanceSnapshot(summary.balanceSnapshot())
+        .transactionResultType(summary.transactionResultType())
+        .transactionAt(summary.transactionAt()).build();
   }
 }
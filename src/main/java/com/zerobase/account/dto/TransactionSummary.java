@@ -0,0 +1,22 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.type.TransactionResultType;
+import com.zerobase.account.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 조회용 projection (거래 확인, 거래 내역)
+ * 엔티티를 올리지 않고 응답에 필요한 컬럼만 읽는다.
+ */
+public record TransactionSummary(
+    Long transactionId,
+    Long transactionKey,
+    String accountNumber,
+    TransactionType transactionType,
+    TransactionResultType transactionResultType,
+    Long amount,
+    Long balanceSnapshot,
+    LocalDateTime transactionAt
+) {
+}
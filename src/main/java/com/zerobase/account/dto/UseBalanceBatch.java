@@ -0,0 +1,67 @@
+package com.zerobase.account.dto;
+
+import com.zerobase.account.type.ErrorCode;
+import com.zerobase.account.type.TransactionResultType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+  /**
+   * {
+   * "items":[
+   * {"userId":1,"accountNumber":"1000000008","amount":1000},
+   * {"userId":1,"accountNumber":"1000000008","amount":2000}
+   * ]
+   * }
+   */
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Request {
+    @NotEmpty
+    @Size(max = 1000, message = "한 번에 1000건까지 처리할 수 있습니다.")
+    private List<UseBalance.@Valid Request> items;
+  }
+
+  @Getter @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @Builder
+  public static class Item {
+    private String accountNumber;
+    private TransactionResultType transactionResult;
+    private String transactionId;
+    private Long amount;
+    private LocalDateTime transactionAt;
+    private ErrorCode errorCode;
+
+    public static Item from(TransactionDto transactionDto) {
+      return Item.builder()
+          .accountNumber(transactionDto.getAccountNumber())
+          .transactionResult(transactionDto.getTransactionResultType())
+          .transactionId(transactionDto.getTransactionId())
+          .amount(transactionDto.getAmount())
+          .transactionAt(transactionDto.getTransactionAt())
+          .errorCode(transactionDto.getErrorCode())
+          .build();
+    }
+  }
+
+  @Getter @Setter
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Response {
+    // 요청 순서와 같다.
+    private List<Item> results;
+
+    public static Response from(List<TransactionDto> transactionDtos) {
+      return new Response(transactionDtos.stream().map(Item::from).toList());
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.zerobase.account.repository;
+
+import com.zerobase.account.domain.AccountCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AccountCheckpointRepository extends JpaRepository<AccountCheckpoint, Long> {
+}
@@ -2,7 +2,15 @@ package com.zerobase.account.repository;
 
 import com.zerobase.account.domain.Account;
 import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.AccountDetail;
+import com.zerobase.account.dto.AccountInfo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,11 +18,54 @@ import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-  Optional<Account> findFirstByOrderByAccountIdDesc();
-
   Integer countByAccountUser(AccountUser accountUser);
 
   Optional<Account> findByAccountNumber(String accountNumber);
 
-  List<Account> findByAccountUser(AccountUser accountUser);
+  // 조회 전용 projection : 영속성 컨텍스트에 올리지 않는다.
+  @Query("select new com.zerobase.account.dto.AccountDetail(a.accountId, "
+      + "a.accountUser.accountUserId, a.accountNumber, a.balance, a.accountStatus, "
+      + "a.registeredAt, a.unRegisteredAt) from Account a where a.accountId = :accountId")
+  Optional<AccountDetail> findDetailByAccountId(@Param("accountId") Long accountId);
+
+  @Query("select new com.zerobase.account.dto.AccountInfo(a.accountNumber, a.balance) "
+      + "from Account a where a.accountUser.accountUserId = :userId order by a.accountId")
+  List<AccountInfo> findInfoByUserId(@Param("userId") Long userId);
+
+  // 전체 계좌 순회용 (account_id keyset)
+  @Query("select a.accountId from Account a where a.accountId > :after order by a.accountId")
+  List<Long> findAccountIdsAfter(@Param("after") Long after, Pageable pageable);
+
+  // 체크포인트가 없는 계좌 순회용 (개설 체크포인트 backfill)
+  @Query("select a.accountId from Account a where a.accountId > :after "
+      + "and not exists (select c.accountId from AccountCheckpoint c where c.accountId = a.accountId) "
+      + "order by a.accountId")
+  List<Long> findAccountIdsWithoutCheckpointAfter(@Param("after") Long after, Pageable pageable);
+
+  // 잔액과 거래 내역을 같은 시점으로 읽도록 계좌 행을 잠근다.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select a from Account a where a.accountId = :accountId")
+  Optional<Account> findForUpdate(@Param("accountId") Long accountId);
+
+  @Query("select a.balance from Account a where a.accountId = :accountId")
+  Optional<Long> findBalanceByAccountId(@Param("accountId") Long accountId);
+
+  // 잔액이 충분하고 사용 중인 계좌일 때만 차감한다. (갱신된 행 수 : 1 성공, 0 실패)
+  // versioned : 버전도 올려서 엔티티로 읽어 둔 쪽(해지 등)이 덮어쓰지 못하게 한다.
+  // 이후 같은 트랜잭션에서 갱신된 계좌를 다시 읽도록 영속성 컨텍스트를 비운다.
+  @Modifying(clearAutomatically = true)
+  @Query("update versioned Account a set a.balance = a.balance - :amount "
+      + "where a.accountId = :accountId and a.balance >= :amount "
+      + "and a.accountStatus = com.zerobase.account.type.AccountStatus.IN_USE")
+  int debit(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+  @Modifying(clearAutomatically = true)
+  @Query("update versioned Account a set a.balance = a.balance + :amount "
+      + "where a.accountId = :accountId")
+  int credit(@Param("accountId") Long accountId, @Param("amount") Long amount);
+
+  // EVENT 모드의 잔액 projection 갱신 (이벤트로 다시 계산한 잔액을 그대로 쓴다.)
+  @Modifying(flushAutomatically = true)
+  @Query("update versioned Account a set a.balance = :balance where a.accountId = :accountId")
+  int updateBalance(@Param("accountId") Long accountId, @Param("balance") Long balance);
 }
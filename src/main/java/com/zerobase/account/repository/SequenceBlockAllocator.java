@@ -0,0 +1,51 @@
+package com.zerobase.account.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 시퀀스에서 블록 단위로 값을 확보해 두고 하나씩 나눠준다. (pooled-lo)
+ * 시퀀스 값 v 는 [v, v + blockSize) 구간을 의미하므로
+ * 시퀀스의 INCREMENT BY 는 blockSize 와 같아야 한다.
+ * 블록 안에서는 AtomicLong 만 사용하고, 블록이 소진됐을 때만 락을 잡는다.
+ */
+public class SequenceBlockAllocator {
+  private final LongSupplier blockSource;
+  private final long blockSize;
+  private final ReentrantLock refillLock = new ReentrantLock();
+  private volatile Block current;
+
+  private record Block(AtomicLong next, long end) {
+  }
+
+  public SequenceBlockAllocator(LongSupplier blockSource, long blockSize) {
+    this.blockSource = blockSource;
+    this.blockSize = blockSize;
+  }
+
+  public long next() {
+    while (true) {
+      Block block = current;
+      if (block != null) {
+        long value = block.next().getAndIncrement();
+        if (value < block.end()) {
+          return value;
+        }
+      }
+      refill(block);
+    }
+  }
+
+  private void refill(Block exhausted) {
+    refillLock.lock();
+    try {
+      if (current == exhausted) {
+        long start = blockSource.getAsLong();
+        current = new Block(new AtomicLong(start), start + blockSize);
+      }
+    } finally {
+      refillLock.unlock();
+    }
+  }
+}
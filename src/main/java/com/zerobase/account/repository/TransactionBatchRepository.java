@@ -0,0 +1,158 @@
+package com.zerobase.account.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zerobase.account.domain.Transaction;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 거래 내역을 JDBC 배치로 저장한다.
+ * 요청 스레드는 자신의 트랜잭션 커넥션을 잡은 채로 저장 완료를 기다리므로,
+ * 커넥션 풀이 고갈되어도 막히지 않도록 별도의 작은 커넥션 풀을 사용한다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+  // 취소 거래는 원거래 키로 원거래 아이디를 찾는다. (같은 배치의 앞선 행도 보인다)
+  private static final String CANCELED_ID =
+      "(select c.transaction_id from transaction c where c.transaction_key = ?)";
+  private static final String INSERT_SQL =
+      "insert into transaction (transaction_id, transaction_type, transaction_result_type, "
+          + "account_id, amount, balance_snapshot, transaction_key, transaction_at, "
+          + "created_at, updated_at, canceled_transaction_id) "
+          + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + CANCELED_ID + ")";
+  // 같은 거래(transaction_key)가 이미 있으면 넣지 않는다. (로그 재전송용)
+  private static final String INSERT_IF_ABSENT_SQL =
+      "insert into transaction (transaction_id, transaction_type, transaction_result_type, "
+          + "account_id, amount, balance_snapshot, transaction_key, transaction_at, "
+          + "created_at, updated_at, canceled_transaction_id) "
+          + "select ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " + CANCELED_ID + " "
+          + "where not exists (select 1 from transaction where transaction_key = ?)";
+  private static final String NEXT_ID_SQL = "select next value for transaction_seq";
+
+  private final DataSourceProperties dataSourceProperties;
+
+  // Transaction 엔티티의 pooled-lo 생성기와 같은 시퀀스, 같은 블록 크기를 사용한다.
+  @Value("${account.id.allocation-size:50}")
+  private int allocationSize = 50;
+
+  private final ReentrantLock initLock = new ReentrantLock();
+  private volatile HikariDataSource dataSource;
+  private volatile SequenceBlockAllocator idAllocator;
+
+  /**
+   * 아이디를 채워 넣고 한 번의 커밋으로 모두 저장한다.
+   */
+  public void insertAll(List<Transaction> transactions) throws SQLException {
+    execute(INSERT_SQL, transactions, false);
+  }
+
+  /**
+   * 이미 저장된 거래(transaction_key)는 건너뛰고 한 번의 커밋으로 저장한다.
+   * 새로 저장된 건수를 반환한다.
+   */
+  public int insertAllIfAbsent(List<Transaction> transactions) throws SQLException {
+    int inserted = 0;
+    for (int count : execute(INSERT_IF_ABSENT_SQL, transactions, true)) {
+      if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+        inserted++;
+      }
+    }
+    return inserted;
+  }
+
+  private int[] execute(String sql, List<Transaction> transactions, boolean bindKey)
+      throws SQLException {
+    HikariDataSource batchDataSource = getDataSource();
+    // 블록 확보도 커넥션을 쓰므로 INSERT 커넥션을 잡기 전에 아이디를 먼저 채운다.
+    for (Transaction transaction : transactions) {
+      if (transaction.getTransactionId() == null) {
+        transaction.setTransactionId(idAllocator.next());
+      }
+    }
+    try (Connection connection = batchDataSource.getConnection()) {
+      try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Transaction transaction : transactions) {
+          transaction.setCreatedAt(now);
+          transaction.setUpdatedAt(now);
+          ps.setLong(1, transaction.getTransactionId());
+          ps.setString(2, transaction.getTransactionType().name());
+          ps.setString(3, transaction.getTransactionResultType().name());
+          ps.setLong(4, transaction.getAccount().getAccountId());
+          ps.setLong(5, transaction.getAmount());
+          ps.setLong(6, transaction.getBalanceSnapshot());
+          ps.setLong(7, transaction.getTransactionKey());
+          ps.setTimestamp(8, Timestamp.valueOf(transaction.getTransactionAt()));
+          ps.setTimestamp(9, Timestamp.valueOf(now));
+          ps.setTimestamp(10, Timestamp.valueOf(now));
+          Transaction canceled = transaction.getCanceledTransaction();
+          if (canceled == null) {
+            ps.setNull(11, Types.BIGINT);
+          } else {
+            ps.setLong(11, canceled.getTransactionKey());
+          }
+          if (bindKey) {
+            ps.setLong(12, transaction.getTransactionKey());
+          }
+          ps.addBatch();
+        }
+        int[] counts = ps.executeBatch();
+        connection.commit();
+        return counts;
+      } catch (SQLException e) {
+        connection.rollback();
+        throw e;
+      }
+    }
+  }
+
+  private HikariDataSource getDataSource() {
+    if (dataSource == null) {
+      initLock.lock();
+      try {
+        if (dataSource == null) {
+          HikariDataSource created = dataSourceProperties.initializeDataSourceBuilder()
+              .type(HikariDataSource.class).build();
+          created.setPoolName("transaction-batch");
+          created.setMaximumPoolSize(2);
+          created.setMinimumIdle(1);
+          created.setAutoCommit(false);
+          idAllocator = new SequenceBlockAllocator(this::nextIdBlock, allocationSize);
+          dataSource = created;
+        }
+      } finally {
+        initLock.unlock();
+      }
+    }
+    return dataSource;
+  }
+
+  private long nextIdBlock() {
+    try (Connection connection = dataSource.getConnection();
+         PreparedStatement ps = connection.prepareStatement(NEXT_ID_SQL);
+         ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      return rs.getLong(1);
+    } catch (SQLException e) {
+      throw new IllegalStateException("failed to allocate transaction id block", e);
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    if (dataSource != null) {
+      dataSource.close();
+    }
+  }
+}
@@ -0,0 +1,10 @@
+package com.zerobase.account.repository;
+
+import com.zerobase.account.domain.TransactionLogMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransactionLogMarkerRepository
+    extends JpaRepository<TransactionLogMarker, Long> {
+}
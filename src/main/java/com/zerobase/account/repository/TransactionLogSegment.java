@@ -0,0 +1,202 @@
+package com.zerobase.account.repository;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.type.TransactionResultType;
+import com.zerobase.account.type.TransactionType;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * 거래 로그 세그먼트 파일 하나 (memory-mapped)
+ * 거래 한 건은 64 바이트 고정 레코드로 기록한다.
+ * <pre>
+ *  0 int  magic        4 byte state   5 byte transactionType   6 byte transactionResultType
+ *  8 long accountId   16 long amount  24 long balanceSnapshot  32 long transactionKey
+ * 40 long transactionAt(epoch second) 48 int nano  52 int crc32(5 ~ 51)
+ * </pre>
+ * 본문을 먼저 쓰고 magic 을 마지막에 쓰므로, 중간에 끊긴 레코드는 빈 칸이나 crc 불일치로 보인다.
+ * state 는 DB 트랜잭션 결과에 따라 제자리에서 바꾼다. (crc 에 포함하지 않는다)
+ * 기록(append)은 한 스레드씩만 한다. ({@code TransactionLog} 의 lock)
+ */
+public class TransactionLogSegment implements Closeable {
+  public static final int RECORD_SIZE = 64;
+  public static final byte PREPARED = 1;
+  public static final byte COMMITTED = 2;
+  public static final byte ABORTED = 3;
+
+  private static final int MAGIC = 0x54584C31;
+  private static final int STATE = 4;
+  private static final int BODY = 5;
+  private static final int CRC = 52;
+  private static final TransactionType[] TRANSACTION_TYPES = TransactionType.values();
+  private static final TransactionResultType[] RESULT_TYPES = TransactionResultType.values();
+
+  @Getter
+  private final long sequence;
+  @Getter
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  // state 변경을 읽는 쪽(shipper)에 보이게 하는 용도
+  private final AtomicLong stateChanges = new AtomicLong();
+
+  private volatile int writePosition;
+  @Getter
+  private volatile boolean sealed;
+
+  /**
+   * 세그먼트 파일을 열고 (없으면 size 만큼 만든다) 마지막 온전한 레코드 다음부터 쓰도록 한다.
+   */
+  public static TransactionLogSegment open(Path path, long sequence, int size) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long mappedSize = Math.max(channel.size(), size);
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+    return new TransactionLogSegment(sequence, path, channel, buffer);
+  }
+
+  private TransactionLogSegment(long sequence, Path path, FileChannel channel,
+                                MappedByteBuffer buffer) {
+    this.sequence = sequence;
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+    int position = 0;
+    while (position + RECORD_SIZE <= buffer.capacity() && isValid(position)) {
+      position += RECORD_SIZE;
+    }
+    this.writePosition = position;
+  }
+
+  public boolean hasRoom() {
+    return writePosition + RECORD_SIZE <= buffer.capacity();
+  }
+
+  public int getWritePosition() {
+    return writePosition;
+  }
+
+  public void seal() {
+    sealed = true;
+  }
+
+  /**
+   * 레코드를 기록하고 위치를 반환한다.
+   */
+  public int append(Transaction transaction, byte state) {
+    int position = writePosition;
+    LocalDateTime transactionAt = transaction.getTransactionAt();
+    buffer.put(position + BODY, (byte) transaction.getTransactionType().ordinal());
+    buffer.put(position + 6, (byte) transaction.getTransactionResultType().ordinal());
+    buffer.put(position + 7, (byte) 0);
+    buffer.putLong(position + 8, transaction.getAccount().getAccountId());
+    buffer.putLong(position + 16, transaction.getAmount());
+    buffer.putLong(position + 24, transaction.getBalanceSnapshot());
+    buffer.putLong(position + 32, transaction.getTransactionKey());
+    buffer.putLong(position + 40, transactionAt.toEpochSecond(ZoneOffset.UTC));
+    buffer.putInt(position + 48, transactionAt.getNano());
+    buffer.putInt(position + CRC, crc(position));
+    buffer.put(position + STATE, state);
+    buffer.putInt(position, MAGIC);
+    writePosition = position + RECORD_SIZE;
+    return position;
+  }
+
+  public void setState(int position, byte state) {
+    buffer.put(position + STATE, state);
+    stateChanges.incrementAndGet();
+  }
+
+  /**
+   * from 부터 결과가 정해진(COMMITTED, ABORTED) 레코드를 연속으로 최대 max 건 읽는다.
+   * 아직 PREPARED 인 레코드를 만나면 멈춘다. (커밋 순서를 지키기 위해)
+   */
+  public List<Entry> readResolved(int from, int max) {
+    stateChanges.get();
+    int end = writePosition;
+    List<Entry> entries = new ArrayList<>();
+    for (int position = from; position < end && entries.size() < max;
+         position += RECORD_SIZE) {
+      byte state = buffer.get(position + STATE);
+      if (state == PREPARED) {
+        break;
+      }
+      entries.add(new Entry(position, state, decode(position)));
+    }
+    return entries;
+  }
+
+  /**
+   * 결과를 아직 모르는 레코드(PREPARED)를 모두 읽는다. (재시작시 결과 확인용)
+   */
+  public List<Entry> readPrepared() {
+    List<Entry> prepared = new ArrayList<>();
+    for (int position = 0; position < writePosition; position += RECORD_SIZE) {
+      if (buffer.get(position + STATE) == PREPARED) {
+        prepared.add(new Entry(position, PREPARED, decode(position)));
+      }
+    }
+    return prepared;
+  }
+
+  public void force(int position, int length) {
+    buffer.force(position, length);
+  }
+
+  public void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  public void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+
+  private boolean isValid(int position) {
+    return buffer.getInt(position) == MAGIC && buffer.getInt(position + CRC) == crc(position);
+  }
+
+  private int crc(int position) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(buffer.slice(position + BODY, CRC - BODY));
+    return (int) crc32.getValue();
+  }
+
+  private Transaction decode(int position) {
+    return Transaction.builder()
+        .transactionType(TRANSACTION_TYPES[buffer.get(position + BODY)])
+        .transactionResultType(RESULT_TYPES[buffer.get(position + 6)])
+        .account(Account.builder().accountId(buffer.getLong(position + 8)).build())
+        .amount(buffer.getLong(position + 16))
+        .balanceSnapshot(buffer.getLong(position + 24))
+        .transactionKey(buffer.getLong(position + 32))
+        .transactionAt(LocalDateTime.ofEpochSecond(buffer.getLong(position + 40),
+            buffer.getInt(position + 48), ZoneOffset.UTC))
+        .build();
+  }
+
+  public record Entry(int position, byte state, Transaction transaction) {
+    public boolean isCommitted() {
+      return state == COMMITTED;
+    }
+  }
+}
@@ -1,12 +1,80 @@
 package com.zerobase.account.repository;
 
 import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.BalanceChange;
+import com.zerobase.account.dto.TransactionSummary;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction,Long> {
-  Optional<Transaction> findByTransactionUUID(String transactionId);
+  String SUMMARY = "select new com.zerobase.account.dto.TransactionSummary(t.transactionId, "
+      + "t.transactionKey, a.accountNumber, t.transactionType, t.transactionResultType, "
+      + "t.amount, t.balanceSnapshot, t.transactionAt) from Transaction t join t.account a ";
+
+  // 취소는 계좌(번호, 아이디)가 필요하므로 한 번에 읽는다.
+  @EntityGraph(attributePaths = "account")
+  Optional<Transaction> findByTransactionKey(Long transactionKey);
+
+  // 메모리 원장 저널이 취소 거래를 원거래에 연결할 때 사용한다.
+  List<Transaction> findAllByTransactionKeyIn(Collection<Long> transactionKeys);
+
+  // 이미 취소된 거래인지 (취소 거래가 원거래를 가리킨다)
+  boolean existsByCanceledTransaction_TransactionKey(Long transactionKey);
+
+  // 거래 확인 (조회 전용 projection)
+  @Query(SUMMARY + "where t.transactionKey = :transactionKey")
+  Optional<TransactionSummary> findSummaryByTransactionKey(
+      @Param("transactionKey") Long transactionKey);
+
+  // 계좌 거래 내역 첫 페이지 (최신순)
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "200"))
+  @Query(SUMMARY + "where a.accountId = :accountId "
+      + "order by t.transactionAt desc, t.transactionId desc")
+  Stream<TransactionSummary> streamHistory(@Param("accountId") Long accountId, Pageable pageable);
+
+  // (transactionAt, transactionId) 커서 다음 페이지 (keyset)
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "200"))
+  @Query(SUMMARY + "where a.accountId = :accountId "
+      + "and (t.transactionAt < :transactionAt "
+      + "or (t.transactionAt = :transactionAt and t.transactionId < :transactionId)) "
+      + "order by t.transactionAt desc, t.transactionId desc")
+  Stream<TransactionSummary> streamHistoryAfter(@Param("accountId") Long accountId,
+                                                @Param("transactionAt") LocalDateTime transactionAt,
+                                                @Param("transactionId") Long transactionId,
+                                                Pageable pageable);
+
+  // (transactionAt, transactionId) 이후 성공 거래의 잔액 변화 (오래된 순, 잔액 재계산용)
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("select new com.zerobase.account.dto.BalanceChange(t.transactionId, "
+      + "t.transactionType, t.amount, t.balanceSnapshot, t.transactionAt) "
+      + "from Transaction t where t.account.accountId = :accountId "
+      + "and t.transactionResultType = com.zerobase.account.type.TransactionResultType.S "
+      + "and (t.transactionAt > :transactionAt "
+      + "or (t.transactionAt = :transactionAt and t.transactionId > :transactionId)) "
+      + "order by t.transactionAt, t.transactionId")
+  Stream<BalanceChange> streamBalanceChangesAfter(@Param("accountId") Long accountId,
+                                                 @Param("transactionAt") LocalDateTime transactionAt,
+                                                 @Param("transactionId") Long transactionId);
+
+  // 성공 거래 전체의 잔액 변화 합 (취소 +, 사용 -)
+  @Query("select coalesce(sum(case when t.transactionType = "
+      + "com.zerobase.account.type.TransactionType.CANCEL then t.amount else -t.amount end), 0) "
+      + "from Transaction t where t.account.accountId = :accountId "
+      + "and t.transactionResultType = com.zerobase.account.type.TransactionResultType.S")
+  Long sumBalanceChanges(@Param("accountId") Long accountId);
 }
@@ -0,0 +1,53 @@
+package com.zerobase.account.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.zerobase.account.dto.AccountMetadata;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 계좌번호 -> 계좌 메타데이터(아이디, 소유주, 상태) read-through 캐시
+ * Caffeine(W-TinyLFU) 로 maximum-size 를 넘으면 자주 쓰이지 않는 계좌부터 밀어낸다.
+ * 상태가 바뀌면(계좌 해지) invalidate 하고, 다른 노드의 변경은 expire-after-write 로 정리된다.
+ * 없는 계좌는 캐시하지 않는다.
+ */
+@Component
+public class AccountMetadataCache {
+  private final LoadingCache<String, AccountMetadata> cache;
+
+  public AccountMetadataCache(
+      AccountRepository accountRepository,
+      MeterRegistry meterRegistry,
+      @Value("${account.cache.metadata.maximum-size:100000}") long maximumSize,
+      @Value("${account.cache.metadata.expire-after-write:10m}") Duration expireAfterWrite
+  ) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build(accountNumber -> accountRepository.findByAccountNumber(accountNumber)
+            .map(AccountMetadata::fromEntity)
+            .orElse(null));
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "account.metadata");
+  }
+
+  public AccountMetadata get(String accountNumber) {
+    AccountMetadata metadata = cache.get(accountNumber);
+    if (metadata == null) {
+      throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+    }
+    return metadata;
+  }
+
+  public void invalidate(String accountNumber) {
+    cache.invalidate(accountNumber);
+  }
+}
@@ -0,0 +1,84 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.SequenceBlockAllocator;
+import com.zerobase.account.type.AccountNumberSource;
+import com.zerobase.account.type.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * 계좌번호 발급기
+ * DB 시퀀스 또는 Redis INCRBY 로 block-size 만큼의 번호를 한 번에 확보해 두고,
+ * 그 안에서는 AtomicLong 으로만 나눠주므로 계좌 생성끼리 경합하지 않는다.
+ * 계좌번호 = 9자리 일련번호 + Luhn 검증 숫자 1자리 (총 10자리)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+  private static final long BASE = 100_000_000L;
+  private static final long MAX = 999_999_999L;
+  private static final String NEXT_BLOCK_SQL = "select next value for account_number_seq";
+  private static final String REDIS_KEY = "ACNO : seq";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final RedissonClient redissonClient;
+
+  @Value("${account.number.source:SEQUENCE}")
+  private AccountNumberSource source = AccountNumberSource.SEQUENCE;
+  @Value("${account.number.block-size:100}")
+  private int blockSize = 100;
+
+  private SequenceBlockAllocator allocator;
+
+  @PostConstruct
+  public void init() {
+    allocator = new SequenceBlockAllocator(
+        source == AccountNumberSource.REDIS ? this::nextRedisBlock : this::nextSequenceBlock,
+        blockSize);
+  }
+
+  public String next() {
+    long serial = BASE + allocator.next();
+    if (serial > MAX) {
+      throw new AccountException(ErrorCode.ACCOUNT_NUMBER_EXHAUSTED);
+    }
+    return serial + String.valueOf(checkDigit(serial));
+  }
+
+  // Luhn 검증 숫자
+  static int checkDigit(long serial) {
+    int sum = 0;
+    boolean doubled = true;
+    for (long n = serial; n > 0; n /= 10) {
+      int digit = (int) (n % 10);
+      if (doubled) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sum += digit;
+      doubled = !doubled;
+    }
+    return (10 - sum % 10) % 10;
+  }
+
+  private long nextSequenceBlock() {
+    Long start = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+    log.debug("account number block reserved from sequence : {}", start);
+    return start;
+  }
+
+  private long nextRedisBlock() {
+    long end = redissonClient.getAtomicLong(REDIS_KEY).addAndGet(blockSize);
+    log.debug("account number block reserved from redis : {}", end - blockSize);
+    return end - blockSize;
+  }
+}
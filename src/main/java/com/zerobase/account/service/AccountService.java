@@ -2,7 +2,9 @@ package com.zerobase.account.service;
 
 import com.zerobase.account.domain.Account;
 import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.AccountDetail;
 import com.zerobase.account.dto.AccountDto;
+import com.zerobase.account.dto.AccountInfo;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.repository.AccountRepository;
 import com.zerobase.account.repository.AccountUserRepository;
@@ -14,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.zerobase.account.type.ErrorCode.*;
 
@@ -23,6 +24,10 @@ import static com.zerobase.account.type.ErrorCode.*;
 public class AccountService {
   private final AccountRepository accountRepository;
   private final AccountUserRepository accountUserRepository;
+  private final BalanceLedger balanceLedger;
+  private final AccountNumberAllocator accountNumberAllocator;
+  private final AccountMetadataCache accountMetadataCache;
+  private final ReconciliationService reconciliationService;
 
   /**
    * 사용자가 있는지 조회
@@ -38,19 +43,20 @@ public class AccountService {
 
     validateCreateAccount(accountUser);
 
-    String newAccountNumber = accountRepository.findFirstByOrderByAccountIdDesc()
-        .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-        .orElse("1000000");
-
-    return AccountDto
-        .fromEntity(accountRepository.save(
-            Account.builder()
-                .accountStatus(AccountStatus.IN_USE)
-                .accountUser(accountUser)
-                .balance(intialBalance)
-                .accountNumber(newAccountNumber)
-                .build()
-        ));
+    String newAccountNumber = accountNumberAllocator.next();
+
+    Account account = accountRepository.save(
+        Account.builder()
+            .accountStatus(AccountStatus.IN_USE)
+            .accountUser(accountUser)
+            .balance(intialBalance)
+            .accountNumber(newAccountNumber)
+            .build()
+    );
+    // 잔액 재계산의 기준이 되는 개설 상태
+    reconciliationService.open(account.getAccountId(), intialBalance);
+
+    return AccountDto.fromEntity(account);
   }
 
   private AccountUser getAccountUser(Long userId) {
@@ -65,9 +71,11 @@ public class AccountService {
     }
   }
 
-  @Transactional
-  public Account getAccount(long id) {
-    return accountRepository.findById(id).get();
+  // 조회 전용 : readOnly 트랜잭션은 flush mode 가 MANUAL 이 되어 dirty checking 을 하지 않는다.
+  @Transactional(readOnly = true)
+  public AccountDetail getAccount(long id) {
+    return accountRepository.findDetailByAccountId(id)
+        .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
   }
 
   @Transactional
@@ -77,10 +85,14 @@ public class AccountService {
         .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
 
     validateDeleteAccount(accountUser, account);
+    if (balanceLedger.isEnabled()) {
+      balanceLedger.unregister(accountNumber);
+    }
 
     account.setAccountStatus(AccountStatus.UNREGISTERED);
     account.setUnRegisteredAt(LocalDateTime.now());
     accountRepository.save(account);
+    accountMetadataCache.invalidate(accountNumber);
 
     return AccountDto.fromEntity(account);
   }
@@ -92,17 +104,24 @@ public class AccountService {
     if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
       throw new AccountException(ACCOUNT_ALREADY_UNREGISIERED);
     }
-    if (account.getBalance() > 0) {
+    if (getBalance(account) > 0) {
       throw new AccountException(BALANCE_NOT_EMPTY);
     }
   }
 
-  public List<AccountDto> getAccountByUserId(long userId) {
-    AccountUser accountUser = getAccountUser(userId);
-
-    List<Account> accountList = accountRepository.findByAccountUser(accountUser);
+  // 원장 모드에서는 DB 잔액이 늦게 반영되므로 원장의 잔액으로 확인한다.
+  private Long getBalance(Account account) {
+    if (balanceLedger.isEnabled()) {
+      return balanceLedger.getBalance(account.getAccountNumber());
+    }
+    return account.getBalance();
+  }
 
-    return accountList.stream()
-        .map(AccountDto::fromEntity).collect(Collectors.toList());
+  @Transactional(readOnly = true)
+  public List<AccountInfo> getAccountByUserId(long userId) {
+    if (!accountUserRepository.existsById(userId)) {
+      throw new AccountException(USER_NOT_FOUND);
+    }
+    return accountRepository.findInfoByUserId(userId);
   }
 }
@@ -0,0 +1,262 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import com.zerobase.account.type.TransactionResultType;
+import com.zerobase.account.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.zerobase.account.type.TransactionResultType.F;
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.CANCEL;
+import static com.zerobase.account.type.TransactionType.USE;
+
+/**
+ * 계좌별 메모리 원장 (account.balance.mode=LEDGER)
+ * 계좌번호마다 샤드를 두고, 샤드 안에서 잔액 변경 → 거래 키/시각 할당 → 저널 추가를 한 순서로 처리한다.
+ * 그래서 같은 계좌의 거래는 잔액이 바뀐 순서대로 (transactionAt, transactionId) 가 매겨지고,
+ * 재계산(ReconciliationService)도 그 순서로 더한다.
+ * 샤드는 처음 사용될 때 DB 에서 한 번 읽고, 이후에는 원장이 잔액의 기준이 된다.
+ * DB 반영은 {@link LedgerJournal} 이 비동기로 처리하므로
+ * 사용/취소 처리 중에는 DB 와 Redis 를 기다리지 않는다.
+ * EVENT 모드에서는 계좌 잔액이 늦게 반영되므로 샤드 잔액을 체크포인트 + 이후 거래로 다시 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceLedger {
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final LedgerJournal ledgerJournal;
+  private final TransactionIdGenerator transactionIdGenerator;
+  private final ReconciliationService reconciliationService;
+
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+
+  private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return balanceMode.isLedger();
+  }
+
+  /**
+   * 사용자 아이디와 계좌 소유주가 다른경우, 계좌가 이미 해지 상태인 경우,
+   * 거래 금액이 잔액보다 큰 경우 실패 응답
+   */
+  public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+    Shard shard = getShard(accountNumber);
+    if (!Objects.equals(shard.ownerId, userId)) {
+      throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+    }
+    if (shard.status != AccountStatus.IN_USE) {
+      throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISIERED);
+    }
+
+    shard.sequence.lock();
+    try {
+      long balanceSnapshot = shard.debit(amount);
+      LedgerEntry entry = newEntry(shard, USE, S, amount, balanceSnapshot, null);
+      if (!ledgerJournal.append(entry)) {
+        shard.credit(amount);
+        throw new AccountException(ErrorCode.LEDGER_JOURNAL_FULL);
+      }
+      return entry.toTransactionDto();
+    } finally {
+      shard.sequence.unlock();
+    }
+  }
+
+  public TransactionDto cancelBalance(Long transactionKey, String accountNumber, Long amount) {
+    LedgerEntry original = ledgerJournal.findPending(transactionKey)
+        .orElseGet(() -> fromTransaction(
+            transactionRepository.findByTransactionKey(transactionKey)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))));
+    Shard shard = getShard(accountNumber);
+
+    validateCancelBalance(original, shard, amount);
+    claimCancel(transactionKey);
+
+    shard.sequence.lock();
+    try {
+      long balanceSnapshot = shard.credit(amount);
+      LedgerEntry entry = newEntry(shard, CANCEL, S, amount, balanceSnapshot, transactionKey);
+      if (!ledgerJournal.append(entry)) {
+        shard.debitUnchecked(amount);
+        ledgerJournal.releaseCancel(transactionKey);
+        throw new AccountException(ErrorCode.LEDGER_JOURNAL_FULL);
+      }
+      return entry.toTransactionDto();
+    } finally {
+      shard.sequence.unlock();
+    }
+  }
+
+  /**
+   * 저널에서 취소를 선점하고, DB 에 반영된 취소가 있는지도 확인한다.
+   * (선점은 취소가 DB 에 반영된 뒤에 풀리므로 둘 중 하나에서는 반드시 보인다)
+   */
+  private void claimCancel(Long transactionKey) {
+    if (!ledgerJournal.claimCancel(transactionKey)) {
+      throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+    }
+    if (transactionRepository.existsByCanceledTransaction_TransactionKey(transactionKey)) {
+      ledgerJournal.releaseCancel(transactionKey);
+      throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+    }
+  }
+
+  private void validateCancelBalance(LedgerEntry original, Shard shard, Long amount) {
+    if (!Objects.equals(original.getAccountId(), shard.accountId)) {
+      throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+    }
+    if (!Objects.equals(original.getAmount(), amount)) {
+      throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+    }
+    if (original.getTransactionAt().isBefore(LocalDateTime.now().minusYears(1))) {
+      throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+    }
+  }
+
+  public void saveFailedUseTransaction(String accountNumber, Long amount) {
+    Shard shard = getShard(accountNumber);
+    shard.sequence.lock();
+    try {
+      if (!ledgerJournal.append(newEntry(shard, USE, F, amount, shard.balance.get(), null))) {
+        log.warn("ledger journal is full. failed transaction dropped : {}", accountNumber);
+      }
+    } finally {
+      shard.sequence.unlock();
+    }
+  }
+
+  public TransactionDto queryPending(Long transactionKey) {
+    return ledgerJournal.findPending(transactionKey)
+        .map(LedgerEntry::toTransactionDto)
+        .orElse(null);
+  }
+
+  public long getBalance(String accountNumber) {
+    return getShard(accountNumber).balance.get();
+  }
+
+  // 계좌 해지시 원장에도 반영한다.
+  public void unregister(String accountNumber) {
+    getShard(accountNumber).status = AccountStatus.UNREGISTERED;
+  }
+
+  private Shard getShard(String accountNumber) {
+    return shards.computeIfAbsent(accountNumber, this::loadShard);
+  }
+
+  private Shard loadShard(String accountNumber) {
+    Account account = accountRepository.findByAccountNumber(accountNumber)
+        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    long balance = account.getBalance();
+    if (balanceMode == BalanceMode.EVENT) {
+      Long replayed = reconciliationService.replayBalance(account.getAccountId());
+      if (replayed != null) {
+        balance = replayed;
+      }
+    }
+    log.debug("ledger shard loaded : {}", accountNumber);
+    return new Shard(account, balance);
+  }
+
+  // 샤드의 sequence 락 안에서 호출한다.
+  private LedgerEntry newEntry(Shard shard, TransactionType transactionType,
+                               TransactionResultType transactionResultType,
+                               Long amount, long balanceSnapshot,
+                               Long canceledTransactionKey) {
+    return LedgerEntry.builder()
+        .accountId(shard.accountId)
+        .accountNumber(shard.accountNumber)
+        .transactionType(transactionType)
+        .transactionResultType(transactionResultType)
+        .amount(amount)
+        .balanceSnapshot(balanceSnapshot)
+        .transactionKey(transactionIdGenerator.next())
+        .transactionAt(shard.nextTransactionAt())
+        .canceledTransactionKey(canceledTransactionKey)
+        .build();
+  }
+
+  private LedgerEntry fromTransaction(Transaction transaction) {
+    return LedgerEntry.builder()
+        .accountId(transaction.getAccount().getAccountId())
+        .accountNumber(transaction.getAccount().getAccountNumber())
+        .transactionType(transaction.getTransactionType())
+        .transactionResultType(transaction.getTransactionResultType())
+        .amount(transaction.getAmount())
+        .balanceSnapshot(transaction.getBalanceSnapshot())
+        .transactionKey(transaction.getTransactionKey())
+        .transactionAt(transaction.getTransactionAt())
+        .build();
+  }
+
+  /**
+   * 계좌 하나의 원장 샤드
+   * 잔액 변경은 sequence 락 안에서만 하고, 잔액 조회는 락 없이 읽는다.
+   */
+  static class Shard {
+    private final Long accountId;
+    private final String accountNumber;
+    private final Long ownerId;
+    private final AtomicLong balance;
+    private final ReentrantLock sequence = new ReentrantLock();
+    private LocalDateTime lastTransactionAt = LocalDateTime.MIN;
+    private volatile AccountStatus status;
+
+    Shard(Account account, long balance) {
+      this.accountId = account.getAccountId();
+      this.accountNumber = account.getAccountNumber();
+      this.ownerId = account.getAccountUser().getAccountUserId();
+      this.balance = new AtomicLong(balance);
+      this.status = account.getAccountStatus();
+    }
+
+    long debit(long amount) {
+      long current = balance.get();
+      if (current < amount) {
+        throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+      }
+      balance.set(current - amount);
+      return current - amount;
+    }
+
+    long debitUnchecked(long amount) {
+      return balance.addAndGet(-amount);
+    }
+
+    long credit(long amount) {
+      return balance.addAndGet(amount);
+    }
+
+    // 시계가 뒤로 가도 같은 계좌의 거래 시각은 줄어들지 않는다. (같으면 transactionId 순서)
+    LocalDateTime nextTransactionAt() {
+      LocalDateTime now = LocalDateTime.now();
+      if (now.isBefore(lastTransactionAt)) {
+        now = lastTransactionAt;
+      }
+      lastTransactionAt = now;
+      return now;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.zerobase.account.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 계좌 잔액 projection 갱신 (account.balance.mode=EVENT)
+ * 저널이 이벤트를 추가한 계좌만 모아, 계좌마다 밀린 이벤트를 한 번에 더해 잔액을 쓰고
+ * 체크포인트(스냅샷)를 옮긴다. 체크포인트 덕분에 재계산은 마지막 체크포인트 이후만 읽는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.balance.mode", havingValue = "EVENT")
+public class BalanceProjector {
+  private final LedgerJournal ledgerJournal;
+  private final ReconciliationService reconciliationService;
+
+  @Scheduled(fixedDelayString = "${account.event.projection-interval-ms:1000}")
+  public void project() {
+    List<Long> accountIds = ledgerJournal.drainDirtyAccounts();
+    for (Long accountId : accountIds) {
+      try {
+        reconciliationService.project(accountId);
+      } catch (RuntimeException e) {
+        // 다음 주기에 다시 반영한다.
+        log.error("balance projection failed. accountId : {}", accountId, e);
+        ledgerJournal.markDirty(accountId);
+      }
+    }
+    if (!accountIds.isEmpty()) {
+      log.debug("balance projected. accounts : {}", accountIds.size());
+    }
+  }
+}
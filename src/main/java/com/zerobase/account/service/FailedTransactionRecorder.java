@@ -0,0 +1,191 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.AccountMetadata;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.zerobase.account.type.TransactionResultType.F;
+import static com.zerobase.account.type.TransactionType.USE;
+
+/**
+ * 실패 거래(F) 비동기 기록
+ * 요청 스레드는 큐에 넣기만 하고 (계좌 락을 잡은 채로 DB 를 기다리지 않는다),
+ * recorder 스레드가 모아서 JDBC 배치로 저장한다.
+ * 큐가 가득 차면 offer-timeout-ms 만큼만 기다리고 버린다. (감사용 기록이므로 거래를 막지 않는다)
+ * 거래 키와 시각은 실패한 시점의 값이지만, balanceSnapshot 은 배치를 저장할 때 읽은 잔액이다.
+ * (실패 시점의 잔액을 남기려면 요청 스레드에서 DB 를 읽어야 하므로 읽지 않는다.
+ *  그 사이 다른 거래가 반영되었다면 실패 시점의 잔액과 다를 수 있다.)
+ * account.failed-transactions.recorded : 저장된 수
+ * account.failed-transactions.dropped : 버린 수 (reason : overflow | unresolved | error)
+ * account.failed-transactions.queue : 큐에 쌓인 수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FailedTransactionRecorder {
+  private static final long POLL_TIMEOUT_MS = 100L;
+
+  private final AccountMetadataCache accountMetadataCache;
+  private final AccountRepository accountRepository;
+  private final TransactionBatchRepository transactionBatchRepository;
+  private final TransactionIdGenerator transactionIdGenerator;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${account.failed-transaction.capacity:8192}")
+  private int capacity = 8192;
+  @Value("${account.failed-transaction.batch-size:256}")
+  private int batchSize = 256;
+  @Value("${account.failed-transaction.offer-timeout-ms:5}")
+  private long offerTimeoutMs = 5L;
+
+  private record FailedUse(String accountNumber, Long amount, Long transactionKey,
+                           LocalDateTime transactionAt) {
+  }
+
+  private BlockingQueue<FailedUse> queue;
+  private Thread recorder;
+  private volatile boolean running;
+  private Counter recorded;
+  private Counter overflow;
+  private Counter unresolved;
+  private Counter error;
+
+  @PostConstruct
+  public void start() {
+    queue = new ArrayBlockingQueue<>(capacity);
+    recorded = Counter.builder("account.failed-transactions.recorded")
+        .register(meterRegistry);
+    overflow = dropped("overflow");
+    unresolved = dropped("unresolved");
+    error = dropped("error");
+    Gauge.builder("account.failed-transactions.queue", queue, Collection::size)
+        .register(meterRegistry);
+    running = true;
+    recorder = new Thread(this::recordLoop, "failed-transaction-recorder");
+    recorder.setDaemon(true);
+    recorder.start();
+  }
+
+  private Counter dropped(String reason) {
+    return Counter.builder("account.failed-transactions.dropped")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (recorder != null) {
+      recorder.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /**
+   * 실패 거래를 기록 큐에 넣는다. 거래 키와 시각은 실패한 시점의 값으로 남긴다.
+   * 큐에 넣지 못하면 false 를 반환한다.
+   */
+  public boolean record(String accountNumber, Long amount) {
+    FailedUse failedUse = new FailedUse(accountNumber, amount,
+        transactionIdGenerator.next(), LocalDateTime.now());
+    try {
+      if (queue.offer(failedUse, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    overflow.increment();
+    return false;
+  }
+
+  private void recordLoop() {
+    List<FailedUse> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        FailedUse first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void write(List<FailedUse> batch) {
+    try {
+      List<Transaction> transactions = toTransactions(batch);
+      if (!transactions.isEmpty()) {
+        transactionBatchRepository.insertAll(transactions);
+        recorded.increment(transactions.size());
+      }
+    } catch (Exception e) {
+      log.error("failed transaction batch not recorded. size : {}", batch.size(), e);
+      error.increment(batch.size());
+    }
+  }
+
+  // 계좌를 찾지 못한 건은 버리고, 잔액은 계좌별로 한 번에 읽는다. (저장 시점의 잔액)
+  private List<Transaction> toTransactions(List<FailedUse> batch) {
+    Map<String, Long> accountIds = new HashMap<>();
+    List<FailedUse> resolved = new ArrayList<>(batch.size());
+    for (FailedUse failedUse : batch) {
+      Long accountId = accountIds.computeIfAbsent(failedUse.accountNumber(), this::accountId);
+      if (accountId == null) {
+        unresolved.increment();
+        continue;
+      }
+      resolved.add(failedUse);
+    }
+    Map<Long, Long> balances = accountRepository.findAllById(new HashSet<>(accountIds.values()))
+        .stream()
+        .collect(Collectors.toMap(Account::getAccountId, Account::getBalance));
+
+    return resolved.stream().map(failedUse -> {
+      Long accountId = accountIds.get(failedUse.accountNumber());
+      return Transaction.builder()
+          .transactionType(USE)
+          .transactionResultType(F)
+          .account(Account.builder().accountId(accountId).build())
+          .amount(failedUse.amount())
+          .balanceSnapshot(balances.getOrDefault(accountId, 0L))
+          .transactionKey(failedUse.transactionKey())
+          .transactionAt(failedUse.transactionAt())
+          .build();
+    }).toList();
+  }
+
+  private Long accountId(String accountNumber) {
+    try {
+      AccountMetadata metadata = accountMetadataCache.get(accountNumber);
+      return metadata.accountId();
+    } catch (AccountException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.zerobase.account.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 락을 자주 요청하는 계좌 top-N (space-saving, stream-summary)
+ * capacity 개의 카운터만 유지하고, 가득 차면 가장 작은 카운터를 새 계좌에 넘겨준다.
+ * count 는 실제보다 최대 error 만큼 크게 나올 수 있다.
+ * 카운터는 같은 count 끼리 bucket 으로 묶어 count 순으로 연결해 두므로
+ * 증가와 최소 카운터 교체가 모두 O(1) 이다.
+ * 요청 스레드는 lock 을 기다리지 않는다. lock 을 바로 얻지 못하면 pending 큐에 넣고,
+ * 다음에 lock 을 얻은 스레드가 모아서 반영한다. (pending 이 가득 차면 버린다)
+ * 가상 스레드에서 호출되므로 synchronized 대신 ReentrantLock 을 사용한다. (pinning 방지)
+ */
+public class HotAccountSketch {
+  private static final int MAX_PENDING = 4096;
+
+  private final int capacity;
+  private final Map<String, Counter> counters;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingSize = new AtomicInteger();
+  // count 가 가장 작은 bucket
+  private Bucket head;
+
+  public HotAccountSketch(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive : " + capacity);
+    }
+    this.capacity = capacity;
+    this.counters = new HashMap<>(capacity * 2);
+  }
+
+  public record HotAccount(String accountNumber, long count, long error) {
+  }
+
+  private static class Bucket {
+    private final long count;
+    private final LinkedHashSet<Counter> counters = new LinkedHashSet<>();
+    private Bucket prev;
+    private Bucket next;
+
+    Bucket(long count) {
+      this.count = count;
+    }
+  }
+
+  private static class Counter {
+    private String accountNumber;
+    private long error;
+    private Bucket bucket;
+
+    Counter(String accountNumber) {
+      this.accountNumber = accountNumber;
+    }
+  }
+
+  public void offer(String accountNumber) {
+    if (!lock.tryLock()) {
+      if (pendingSize.incrementAndGet() <= MAX_PENDING) {
+        pending.offer(accountNumber);
+      } else {
+        pendingSize.decrementAndGet();
+      }
+      return;
+    }
+    try {
+      drainPending();
+      offerLocked(accountNumber);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void drainPending() {
+    String accountNumber;
+    while ((accountNumber = pending.poll()) != null) {
+      pendingSize.decrementAndGet();
+      offerLocked(accountNumber);
+    }
+  }
+
+  private void offerLocked(String accountNumber) {
+    Counter counter = counters.get(accountNumber);
+    if (counter != null) {
+      increment(counter);
+      return;
+    }
+    if (counters.size() < capacity) {
+      counter = new Counter(accountNumber);
+      counters.put(accountNumber, counter);
+      if (head == null || head.count != 1) {
+        Bucket bucket = new Bucket(1);
+        bucket.next = head;
+        if (head != null) {
+          head.prev = bucket;
+        }
+        head = bucket;
+      }
+      attach(counter, head);
+      return;
+    }
+    // 가장 작은 카운터를 새 계좌에 넘겨준다.
+    Counter min = head.counters.iterator().next();
+    counters.remove(min.accountNumber);
+    min.accountNumber = accountNumber;
+    min.error = head.count;
+    counters.put(accountNumber, min);
+    increment(min);
+  }
+
+  private void increment(Counter counter) {
+    Bucket bucket = counter.bucket;
+    long count = bucket.count + 1;
+    Bucket next = bucket.next;
+    if (next == null || next.count != count) {
+      next = new Bucket(count);
+      next.prev = bucket;
+      next.next = bucket.next;
+      if (bucket.next != null) {
+        bucket.next.prev = next;
+      }
+      bucket.next = next;
+    }
+    bucket.counters.remove(counter);
+    attach(counter, next);
+    if (bucket.counters.isEmpty()) {
+      unlink(bucket);
+    }
+  }
+
+  private void attach(Counter counter, Bucket bucket) {
+    bucket.counters.add(counter);
+    counter.bucket = bucket;
+  }
+
+  private void unlink(Bucket bucket) {
+    if (bucket.prev != null) {
+      bucket.prev.next = bucket.next;
+    } else {
+      head = bucket.next;
+    }
+    if (bucket.next != null) {
+      bucket.next.prev = bucket.prev;
+    }
+  }
+
+  public List<HotAccount> top(int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("limit must not be negative : " + limit);
+    }
+    List<HotAccount> result = new ArrayList<>(capacity);
+    lock.lock();
+    try {
+      drainPending();
+      for (Bucket bucket = head; bucket != null; bucket = bucket.next) {
+        for (Iterator<Counter> it = bucket.counters.iterator(); it.hasNext(); ) {
+          Counter counter = it.next();
+          result.add(new HotAccount(counter.accountNumber, bucket.count, counter.error));
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    result.sort(Comparator.comparingLong(HotAccount::count).reversed());
+    return result.subList(0, Math.min(limit, result.size()));
+  }
+}
@@ -0,0 +1,76 @@
+package com.zerobase.account.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerobase.account.aop.AccountLockIdInterface;
+import com.zerobase.account.aop.Idempotent;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Idempotency-Key 헤더가 있는 요청은 {@link IdempotencyStore} 를 거쳐 한 번만 처리한다.
+ * 계좌 락(@Order(1))보다 먼저 실행되므로, 재시도는 락과 DB 를 거치지 않고 저장된 응답을 받는다.
+ * 키는 (엔드포인트, 계좌번호, 헤더 값) 단위로 구분하고,
+ * 같은 키로 본문이 다른 요청이 오면 INVALID_REQUEST 로 거절한다. (본문 JSON 의 SHA-256)
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+  public static final String HEADER = "Idempotency-Key";
+  private static final int MAX_KEY_LENGTH = 128;
+
+  private final IdempotencyStore idempotencyStore;
+  private final ObjectMapper objectMapper;
+
+  @Around("@annotation(idempotent) && args(request)")
+  public Object aroundMethod(
+      ProceedingJoinPoint pjp,
+      Idempotent idempotent,
+      AccountLockIdInterface request
+  ) throws Throwable {
+    String key = currentKey();
+    if (key == null || !idempotencyStore.isEnabled()) {
+      return pjp.proceed();
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new AccountException(ErrorCode.INVALID_REQUEST);
+    }
+    Class<?> responseType = ((MethodSignature) pjp.getSignature()).getReturnType();
+    return idempotencyStore.execute(
+        idempotent.value() + ":" + request.getAccountNumber() + ":" + key,
+        fingerprint(request), responseType, pjp::proceed);
+  }
+
+  private String fingerprint(Object request) throws JsonProcessingException {
+    try {
+      return HexFormat.of().formatHex(
+          MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private String currentKey() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes instanceof ServletRequestAttributes servletRequestAttributes) {
+      return servletRequestAttributes.getRequest().getHeader(HEADER);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,236 @@
+package com.zerobase.account.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 멱등 키 -> 응답 저장소
+ * 로컬 Caffeine 캐시(maximum-size, ttl)에 처리 중/완료된 응답을 두고,
+ * redis-enabled 이면 완료된 응답을 Redis 에도 ttl 동안 남겨 다른 노드의 재시도도 막는다.
+ * 같은 키의 요청이 처리 중이면 그 결과를 기다려 같은 응답을 돌려준다.
+ * 다른 노드에서 처리 중인 요청은 실행 전에 Redis 에 남기는 처리 중 표시(claim-ttl)로 알아보고,
+ * 응답이 저장되거나 표시가 사라질 때까지 Redis 를 확인하며 기다린다.
+ * 실패한 요청은 저장하지 않는다. (다시 시도할 수 있어야 한다)
+ * 응답과 함께 요청 본문의 fingerprint 를 저장해 두고, 같은 키로 다른 본문이 오면
+ * 저장된 응답을 돌려주지 않고 INVALID_REQUEST 로 거절한다.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+  private static final String REDIS_PREFIX = "idempotency:";
+  private static final String CLAIM_SUFFIX = ":claim";
+  private static final String FINGERPRINT_SUFFIX = ":fingerprint";
+  private static final long POLL_INTERVAL_MS = 20L;
+
+  private final RedissonClient redissonClient;
+  private final boolean enabled;
+  private final boolean redisEnabled;
+  private final Duration ttl;
+  private final Duration claimTtl;
+  private final long waitTimeoutMs;
+  private final Cache<String, Entry> local;
+
+  public IdempotencyStore(
+      RedissonClient redissonClient,
+      MeterRegistry meterRegistry,
+      @Value("${account.idempotency.enabled:true}") boolean enabled,
+      @Value("${account.idempotency.maximum-size:100000}") long maximumSize,
+      @Value("${account.idempotency.ttl:10m}") Duration ttl,
+      @Value("${account.idempotency.redis-enabled:false}") boolean redisEnabled,
+      @Value("${account.idempotency.wait-timeout-ms:5000}") long waitTimeoutMs,
+      @Value("${account.idempotency.claim-ttl:30s}") Duration claimTtl
+  ) {
+    this.redissonClient = redissonClient;
+    this.enabled = enabled;
+    this.redisEnabled = redisEnabled;
+    this.ttl = ttl;
+    this.claimTtl = claimTtl;
+    this.waitTimeoutMs = waitTimeoutMs;
+    this.local = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, local, "account.idempotency");
+  }
+
+  @FunctionalInterface
+  public interface Call {
+    Object proceed() throws Throwable;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * key 로 처리된 응답이 있으면 그대로 돌려주고, 없으면 call 을 한 번만 실행해 저장한다.
+   * fingerprint 는 요청 본문을 구분하는 값으로, 같은 key 의 다른 요청이면 거절한다.
+   */
+  public Object execute(String key, String fingerprint, Class<?> responseType, Call call)
+      throws Throwable {
+    Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+    Entry existing = local.asMap().putIfAbsent(key, mine);
+    if (existing != null) {
+      checkFingerprint(existing.fingerprint(), fingerprint);
+      return await(existing.response());
+    }
+    try {
+      Object result = redisEnabled
+          ? executeRemote(key, fingerprint, responseType, call) : call.proceed();
+      mine.response().complete(result);
+      return result;
+    } catch (Throwable e) {
+      local.asMap().remove(key, mine);
+      mine.response().completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  // 다른 노드와 같은 키를 나눈다 : 저장된 응답 -> 처리 중 표시 선점 -> 실행 후 응답 저장
+  private Object executeRemote(String key, String fingerprint, Class<?> responseType, Call call)
+      throws Throwable {
+    String token = UUID.randomUUID().toString();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+    while (true) {
+      Object stored = getRemote(key, responseType);
+      if (stored != null) {
+        checkFingerprint(getRemoteFingerprint(key), fingerprint);
+        return stored;
+      }
+      Boolean claimed = claim(key, token);
+      if (claimed == null || claimed) {
+        break;
+      }
+      // 다른 노드에서 처리 중이다.
+      if (System.nanoTime() >= deadline) {
+        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+      }
+      sleep(POLL_INTERVAL_MS);
+    }
+    try {
+      Object result = call.proceed();
+      putRemote(key, fingerprint, responseType, result);
+      return result;
+    } finally {
+      release(key, token);
+    }
+  }
+
+  // 처리 중 표시를 선점한다. Redis 오류면 null (선점하지 않고 그냥 처리한다)
+  private Boolean claim(String key, String token) {
+    try {
+      return claimBucket(key).trySet(token, claimTtl.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      log.warn("idempotency redis claim failed. key : {}", key, e);
+      return null;
+    }
+  }
+
+  // 내가 남긴 표시만 지운다. (claim-ttl 이 지나 다른 노드가 다시 선점했을 수 있다)
+  private void release(String key, String token) {
+    try {
+      claimBucket(key).compareAndSet(token, null);
+    } catch (RuntimeException e) {
+      log.warn("idempotency redis release failed. key : {}", key, e);
+    }
+  }
+
+  // 저장된 fingerprint 를 모르면(이전 버전이 저장한 응답 등) 확인하지 않는다.
+  private void checkFingerprint(String stored, String fingerprint) {
+    if (stored != null && !stored.equals(fingerprint)) {
+      throw new AccountException(ErrorCode.INVALID_REQUEST);
+    }
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private Object await(CompletableFuture<Object> response) throws Throwable {
+    try {
+      return response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      throw e.getCause();
+    } catch (TimeoutException e) {
+      throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  // Redis 는 보조 저장소이므로 오류가 나도 요청은 계속 처리한다.
+  private Object getRemote(String key, Class<?> responseType) {
+    if (!redisEnabled) {
+      return null;
+    }
+    try {
+      return bucket(key, responseType).get();
+    } catch (RuntimeException e) {
+      log.warn("idempotency redis lookup failed. key : {}", key, e);
+      return null;
+    }
+  }
+
+  private String getRemoteFingerprint(String key) {
+    try {
+      return fingerprintBucket(key).get();
+    } catch (RuntimeException e) {
+      log.warn("idempotency redis fingerprint lookup failed. key : {}", key, e);
+      return null;
+    }
+  }
+
+  // fingerprint 를 먼저 저장한다. (응답만 보이는 동안 다른 본문을 받아주지 않도록)
+  private void putRemote(String key, String fingerprint, Class<?> responseType, Object result) {
+    if (!redisEnabled || result == null) {
+      return;
+    }
+    try {
+      fingerprintBucket(key).set(fingerprint, ttl.toMillis(), TimeUnit.MILLISECONDS);
+      bucket(key, responseType).set(result, ttl.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RuntimeException e) {
+      log.warn("idempotency redis store failed. key : {}", key, e);
+    }
+  }
+
+  private RBucket<Object> bucket(String key, Class<?> responseType) {
+    return redissonClient.getBucket(REDIS_PREFIX + key, new TypedJsonJacksonCodec(responseType));
+  }
+
+  private RBucket<String> claimBucket(String key) {
+    return redissonClient.getBucket(REDIS_PREFIX + key + CLAIM_SUFFIX, StringCodec.INSTANCE);
+  }
+
+  private RBucket<String> fingerprintBucket(String key) {
+    return redissonClient.getBucket(REDIS_PREFIX + key + FINGERPRINT_SUFFIX,
+        StringCodec.INSTANCE);
+  }
+
+  private record Entry(String fingerprint, CompletableFuture<Object> response) {
+  }
+}
@@ -0,0 +1,59 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.aop.LatencyPoint;
+import com.zerobase.account.config.LatencyInjectionProperties;
+import com.zerobase.account.config.LatencyInjectionProperties.Step;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 부하 테스트에서 락 경합을 재현하기 위한 지연 주입
+ * loadtest 프로파일에서만 등록되며, 계좌 락 안쪽에서 실행된다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Profile("loadtest")
+@Order(2)
+@RequiredArgsConstructor
+public class LatencyInjectionAspect {
+  private final LatencyInjectionProperties latencyInjectionProperties;
+
+  @Around("@annotation(latencyPoint)")
+  public Object aroundMethod(
+      ProceedingJoinPoint pjp,
+      LatencyPoint latencyPoint
+  ) throws Throwable {
+    Duration delay = sample(latencyInjectionProperties.getSteps(latencyPoint.value()));
+    if (!delay.isZero()) {
+      log.debug("inject latency {} : {}ms", latencyPoint.value(), delay.toMillis());
+      try {
+        Thread.sleep(delay.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return pjp.proceed();
+  }
+
+  Duration sample(List<Step> steps) {
+    double percentile = ThreadLocalRandom.current().nextDouble(100.0);
+    return steps.stream()
+        .sorted(Comparator.comparingDouble(Step::getPercentile))
+        .filter(step -> percentile < step.getPercentile())
+        .map(Step::getDelay)
+        .findFirst()
+        .orElse(Duration.ZERO);
+  }
+}
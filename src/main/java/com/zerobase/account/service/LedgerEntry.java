@@ -0,0 +1,68 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Base62;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.type.TransactionResultType;
+import com.zerobase.account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+
+/**
+ * 메모리 원장에서 처리된 거래 한 건.
+ * 저널이 DB 에 반영하기 전까지 거래 조회/취소에도 사용된다.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class LedgerEntry {
+  private Long accountId;
+  private String accountNumber;
+  private TransactionType transactionType;
+  private TransactionResultType transactionResultType;
+  private Long amount;
+  private Long balanceSnapshot;
+  private Long transactionKey;
+  private LocalDateTime transactionAt;
+  // 취소 거래가 가리키는 원거래 (사용 거래는 null)
+  private Long canceledTransactionKey;
+
+  // 계좌 잔액에 반영할 변화량 (실패건은 0)
+  public long getBalanceDelta() {
+    if (transactionResultType != S) {
+      return 0L;
+    }
+    return transactionType == USE ? -amount : amount;
+  }
+
+  public Transaction toTransaction(Account account) {
+    return Transaction.builder()
+        .transactionType(transactionType)
+        .transactionResultType(transactionResultType)
+        .account(account)
+        .amount(amount)
+        .balanceSnapshot(balanceSnapshot)
+        .transactionKey(transactionKey)
+        .transactionAt(transactionAt)
+        .build();
+  }
+
+  public TransactionDto toTransactionDto() {
+    return TransactionDto.builder()
+        .accountNumber(accountNumber)
+        .transactionType(transactionType)
+        .transactionResultType(transactionResultType)
+        .amount(amount)
+        .balanceSnapshot(balanceSnapshot)
+        .transactionId(Base62.encode(transactionKey))
+        .transactionAt(transactionAt)
+        .build();
+  }
+}
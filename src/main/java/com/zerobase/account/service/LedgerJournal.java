@@ -0,0 +1,319 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.BalanceMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 메모리 원장의 write-behind 저널
+ * 원장에서 처리된 거래를 큐에 모아두고, 단일 flusher 스레드가
+ * 계좌 잔액 변화량과 거래 내역을 한 트랜잭션으로 DB 에 반영한다.
+ * EVENT 모드에서는 거래 내역(이벤트)만 JDBC 배치로 추가하고,
+ * 계좌 잔액은 {@link BalanceProjector} 가 거래가 생긴 계좌만 모아 다시 계산한다.
+ * 반영에 실패한 배치는 다시 시도하고, max-attempts 번 실패하면 한 건씩 반영해
+ * 데이터 문제로 실패하는 거래만 dead-letter 로 뺀다. (로그, account.ledger.journal.dead-letters)
+ * 원장은 노드마다 따로 있으므로 단일 노드(account.lock.backend=LOCAL)에서만 쓸 수 있다.
+ * 여러 노드가 같은 계좌의 원장을 각자 가지면 서로의 출금을 보지 못해 잔액이 음수가 될 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerJournal {
+  private static final long POLL_TIMEOUT_MS = 100L;
+  private static final long RETRY_BACKOFF_MS = 500L;
+
+  private final AccountRepository accountRepository;
+  private final TransactionRepository transactionRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionBatchRepository transactionBatchRepository;
+  private final MeterRegistry meterRegistry;
+  private final LockBackend lockBackend;
+
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+  @Value("${account.ledger.journal.capacity:65536}")
+  private int capacity = 65536;
+  @Value("${account.ledger.journal.batch-size:500}")
+  private int batchSize = 500;
+  @Value("${account.ledger.journal.offer-timeout-ms:50}")
+  private long offerTimeoutMs = 50L;
+  @Value("${account.ledger.journal.max-attempts:5}")
+  private int maxAttempts = 5;
+
+  // DB 반영 전 거래 (거래 조회/취소용)
+  private final Map<Long, LedgerEntry> pending = new ConcurrentHashMap<>();
+  // 취소가 DB 에 반영되기 전의 원거래 키 (중복 취소 확인용)
+  private final Set<Long> pendingCancels = ConcurrentHashMap.newKeySet();
+  // 이벤트가 추가되었지만 잔액 projection 에 아직 반영되지 않은 계좌 (EVENT 모드)
+  private final Set<Long> dirtyAccounts = ConcurrentHashMap.newKeySet();
+  private BlockingQueue<LedgerEntry> queue;
+  private Thread flusher;
+  private volatile boolean running;
+  private Counter deadLetters;
+
+  @PostConstruct
+  public void start() {
+    queue = new ArrayBlockingQueue<>(capacity);
+    if (!balanceMode.isLedger()) {
+      return;
+    }
+    if (!(lockBackend instanceof LocalStripedLockBackend)) {
+      throw new IllegalStateException("account.balance.mode=" + balanceMode
+          + " requires account.lock.backend=LOCAL (single node)");
+    }
+    deadLetters = Counter.builder("account.ledger.journal.dead-letters").register(meterRegistry);
+    running = true;
+    flusher = new Thread(this::flushLoop, "ledger-journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (flusher != null) {
+      flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  /**
+   * 저널에 거래를 추가한다.
+   * 큐가 가득 차 제한 시간 안에 넣지 못하면 false 를 반환한다.
+   */
+  public boolean append(LedgerEntry entry) {
+    pending.put(entry.getTransactionKey(), entry);
+    try {
+      if (queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    pending.remove(entry.getTransactionKey());
+    return false;
+  }
+
+  public Optional<LedgerEntry> findPending(Long transactionKey) {
+    return Optional.ofNullable(pending.get(transactionKey));
+  }
+
+  /**
+   * 원거래의 취소를 선점한다. 이미 취소가 진행 중이면 false 를 반환한다.
+   * 선점은 취소 거래가 DB 에 반영된 뒤에 풀리므로, 그 뒤에는 DB 로 확인한다.
+   */
+  public boolean claimCancel(Long transactionKey) {
+    return pendingCancels.add(transactionKey);
+  }
+
+  public void releaseCancel(Long transactionKey) {
+    pendingCancels.remove(transactionKey);
+  }
+
+  /**
+   * projection 에 반영할 계좌를 꺼낸다. 꺼내는 동안 추가된 계좌는 다음 번에 꺼내진다.
+   */
+  public List<Long> drainDirtyAccounts() {
+    List<Long> drained = new ArrayList<>();
+    for (Iterator<Long> iterator = dirtyAccounts.iterator(); iterator.hasNext(); ) {
+      drained.add(iterator.next());
+      iterator.remove();
+    }
+    return drained;
+  }
+
+  public void markDirty(Long accountId) {
+    dirtyAccounts.add(accountId);
+  }
+
+  private void flushLoop() {
+    List<LedgerEntry> batch = new ArrayList<>(batchSize);
+    int attempts = 0;
+    while (running || !queue.isEmpty() || !batch.isEmpty()) {
+      try {
+        if (batch.isEmpty()) {
+          LedgerEntry first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+          batch.add(first);
+          queue.drainTo(batch, batchSize - 1);
+        }
+        if (attempts >= maxAttempts) {
+          flushEach(batch);
+        } else {
+          flush(batch);
+        }
+        batch.clear();
+        attempts = 0;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        // 실패한 배치는 버리지 않고 다시 시도한다.
+        attempts++;
+        log.error("ledger journal flush failed. size : {}, attempts : {}",
+            batch.size(), attempts, e);
+        if (!running) {
+          return;
+        }
+        try {
+          Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  // 한 건씩 반영해 실패 원인이 된 거래만 골라낸다. 연결 문제면 남은 거래를 다시 시도한다.
+  private void flushEach(List<LedgerEntry> batch) throws SQLException {
+    for (Iterator<LedgerEntry> iterator = batch.iterator(); iterator.hasNext(); ) {
+      LedgerEntry entry = iterator.next();
+      try {
+        flush(List.of(entry));
+      } catch (SQLException | RuntimeException e) {
+        if (isTransient(e)) {
+          throw e;
+        }
+        deadLetter(entry, e);
+      }
+      iterator.remove();
+    }
+  }
+
+  private void deadLetter(LedgerEntry entry, Exception e) {
+    completed(List.of(entry));
+    deadLetters.increment();
+    log.error("ledger journal entry dead-lettered. transactionKey : {}, accountId : {}, "
+            + "type : {}, result : {}, amount : {}, balanceSnapshot : {}, transactionAt : {}",
+        entry.getTransactionKey(), entry.getAccountId(), entry.getTransactionType(),
+        entry.getTransactionResultType(), entry.getAmount(), entry.getBalanceSnapshot(),
+        entry.getTransactionAt(), e);
+  }
+
+  // 연결/일시적인 오류는 거래 자체의 문제가 아니므로 계속 다시 시도한다.
+  static boolean isTransient(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TransientDataAccessException
+          || cause instanceof RecoverableDataAccessException
+          || cause instanceof DataAccessResourceFailureException
+          || cause instanceof CannotCreateTransactionException
+          || cause instanceof SQLTransientException
+          || cause instanceof SQLRecoverableException
+          || cause instanceof SQLNonTransientConnectionException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void flush(List<LedgerEntry> batch) throws SQLException {
+    if (balanceMode == BalanceMode.EVENT) {
+      appendEvents(batch);
+      return;
+    }
+    transactionTemplate.executeWithoutResult(status -> {
+      Map<Long, Long> deltas = new HashMap<>();
+      for (LedgerEntry entry : batch) {
+        deltas.merge(entry.getAccountId(), entry.getBalanceDelta(), Long::sum);
+      }
+      Map<Long, Account> accounts = accountRepository.findAllById(deltas.keySet())
+          .stream()
+          .collect(Collectors.toMap(Account::getAccountId, Function.identity()));
+      deltas.forEach((accountId, delta) -> {
+        Account account = accounts.get(accountId);
+        account.setBalance(account.getBalance() + delta);
+      });
+      Map<Long, Transaction> transactions = new LinkedHashMap<>();
+      for (LedgerEntry entry : batch) {
+        transactions.put(entry.getTransactionKey(),
+            entry.toTransaction(accounts.get(entry.getAccountId())));
+      }
+      linkCanceledTransactions(batch, transactions);
+      transactionRepository.saveAll(transactions.values());
+    });
+    completed(batch);
+    log.debug("ledger journal flushed. size : {}", batch.size());
+  }
+
+  // 계좌 행은 건드리지 않고 거래 내역만 추가한다. (잔액은 projection 이 나중에 반영)
+  private void appendEvents(List<LedgerEntry> batch) throws SQLException {
+    transactionBatchRepository.insertAll(batch.stream()
+        .map(entry -> {
+          Transaction transaction = entry.toTransaction(
+              Account.builder().accountId(entry.getAccountId()).build());
+          // JDBC 배치는 원거래 키로 canceled_transaction_id 를 찾는다.
+          if (entry.getCanceledTransactionKey() != null) {
+            transaction.setCanceledTransaction(Transaction.builder()
+                .transactionKey(entry.getCanceledTransactionKey()).build());
+          }
+          return transaction;
+        })
+        .toList());
+    batch.forEach(entry -> dirtyAccounts.add(entry.getAccountId()));
+    completed(batch);
+    log.debug("ledger events appended. size : {}", batch.size());
+  }
+
+  // 취소 거래가 원거래를 가리키게 한다. 원거래는 같은 배치에 있거나 이미 DB 에 있다.
+  private void linkCanceledTransactions(List<LedgerEntry> batch,
+                                        Map<Long, Transaction> transactions) {
+    Set<Long> missing = new HashSet<>();
+    for (LedgerEntry entry : batch) {
+      Long canceledKey = entry.getCanceledTransactionKey();
+      if (canceledKey != null && !transactions.containsKey(canceledKey)) {
+        missing.add(canceledKey);
+      }
+    }
+    Map<Long, Transaction> originals = new HashMap<>(transactions);
+    if (!missing.isEmpty()) {
+      transactionRepository.findAllByTransactionKeyIn(missing)
+          .forEach(original -> originals.put(original.getTransactionKey(), original));
+    }
+    for (LedgerEntry entry : batch) {
+      if (entry.getCanceledTransactionKey() != null) {
+        transactions.get(entry.getTransactionKey())
+            .setCanceledTransaction(originals.get(entry.getCanceledTransactionKey()));
+      }
+    }
+  }
+
+  // DB 에 반영되었거나 dead-letter 로 빠진 거래를 대기 목록에서 지운다.
+  private void completed(List<LedgerEntry> entries) {
+    for (LedgerEntry entry : entries) {
+      pending.remove(entry.getTransactionKey());
+      if (entry.getCanceledTransactionKey() != null) {
+        pendingCancels.remove(entry.getCanceledTransactionKey());
+      }
+    }
+  }
+}
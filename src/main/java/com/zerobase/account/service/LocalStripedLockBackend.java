@@ -0,0 +1,48 @@
+package com.zerobase.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 단일 노드용 로컬 락
+ * 락 키의 해시로 고정 개수의 ReentrantLock 중 하나를 고른다. (lock striping)
+ * 락을 잡은 요청 스레드가 finally 에서 해제하므로 lease 시간은 사용하지 않는다.
+ */
+@Component
+@ConditionalOnProperty(name = "account.lock.backend", havingValue = "LOCAL")
+public class LocalStripedLockBackend implements LockBackend {
+  private final ReentrantLock[] stripes;
+  private final int mask;
+
+  public LocalStripedLockBackend(@Value("${account.lock.stripes:1024}") int stripes) {
+    int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.mask = size - 1;
+  }
+
+  @Override
+  public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit)
+      throws InterruptedException {
+    return stripe(key).tryLock(waitTime, unit);
+  }
+
+  @Override
+  public void unlock(String key) {
+    ReentrantLock lock = stripe(key);
+    if (lock.isHeldByCurrentThread()) {
+      lock.unlock();
+    }
+  }
+
+  private ReentrantLock stripe(String key) {
+    int hash = key.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & mask];
+  }
+}
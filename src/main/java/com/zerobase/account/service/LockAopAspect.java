@@ -1,29 +1,46 @@
 package com.zerobase.account.service;
 
+import com.zerobase.account.aop.AccountLock;
 import com.zerobase.account.aop.AccountLockIdInterface;
+import com.zerobase.account.aop.LockPolicy;
 import com.zerobase.account.dto.UseBalance;
 import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.BalanceMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
 @Slf4j
+@Order(1)
 @RequiredArgsConstructor
 public class LockAopAspect {
   private final LockService lockService;
+  private final LockMetrics lockMetrics;
+
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+
   //  어떤 경우에 적용할 것인지
-  @Around("@annotation(com.zerobase.account.aop.AccountLock) && args(request)")
+  @Around("@annotation(accountLock) && args(request)")
   public Object aroundMethod(
       ProceedingJoinPoint pjp,
+      AccountLock accountLock,
       AccountLockIdInterface request
   ) throws Throwable {
-    //lock 취득 시도
-    lockService.getLock(request.getAccountNumber());
+    // 원장 모드처럼 락이 필요 없는 경우 바로 진행
+    if (!balanceMode.isLockRequired()) {
+      return pjp.proceed();
+    }
+    //lock 취득 시도 (어노테이션의 대기/유지 정책 적용)
+    lockService.getLock(request.getAccountNumber(), LockPolicy.from(accountLock));
+    long acquiredAt = System.nanoTime();
     try{
       // before
       return pjp.proceed();
@@ -31,6 +48,7 @@ public class LockAopAspect {
     }  finally {
       //lock 해제
       lockService.unLock(request.getAccountNumber());
+      lockMetrics.recordHold(System.nanoTime() - acquiredAt);
     }
   }
 }
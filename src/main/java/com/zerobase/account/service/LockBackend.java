@@ -0,0 +1,14 @@
+package com.zerobase.account.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 락 구현체
+ * account.lock.backend 로 선택한다. (REDIS : 여러 노드, LOCAL : 단일 노드)
+ */
+public interface LockBackend {
+  boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit)
+      throws InterruptedException;
+
+  void unlock(String key);
+}
@@ -0,0 +1,82 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.type.LockWaitPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 락 지표
+ * account.lock.wait : 락 대기 시간 (policy, result 태그)
+ * account.lock.hold : 락 보유 시간
+ * account.lock.failures : 락 실패 수 (reason : timeout | error)
+ * 락 요청 계좌는 HotAccountSketch 에 모아 /actuator/hotaccounts 로 보여준다.
+ */
+@Component
+public class LockMetrics {
+  private final Map<LockWaitPolicy, Timer> acquiredTimers = new EnumMap<>(LockWaitPolicy.class);
+  private final Map<LockWaitPolicy, Timer> failedTimers = new EnumMap<>(LockWaitPolicy.class);
+  private final Timer holdTimer;
+  private final Counter timeoutCounter;
+  private final Counter errorCounter;
+  private final HotAccountSketch hotAccountSketch;
+
+  public LockMetrics(
+      MeterRegistry meterRegistry,
+      @Value("${account.lock.hot-accounts.capacity:100}") int hotAccountCapacity
+  ) {
+    for (LockWaitPolicy policy : LockWaitPolicy.values()) {
+      acquiredTimers.put(policy, waitTimer(meterRegistry, policy, "acquired"));
+      failedTimers.put(policy, waitTimer(meterRegistry, policy, "failed"));
+    }
+    this.holdTimer = Timer.builder("account.lock.hold")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.timeoutCounter = Counter.builder("account.lock.failures")
+        .tag("reason", "timeout")
+        .register(meterRegistry);
+    this.errorCounter = Counter.builder("account.lock.failures")
+        .tag("reason", "error")
+        .register(meterRegistry);
+    this.hotAccountSketch = new HotAccountSketch(hotAccountCapacity);
+  }
+
+  private static Timer waitTimer(MeterRegistry meterRegistry, LockWaitPolicy policy,
+                                 String result) {
+    return Timer.builder("account.lock.wait")
+        .tag("policy", policy.name())
+        .tag("result", result)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  public void recordWait(String accountNumber, LockWaitPolicy policy, long waitNanos,
+                         boolean acquired) {
+    hotAccountSketch.offer(accountNumber);
+    if (acquired) {
+      acquiredTimers.get(policy).record(waitNanos, TimeUnit.NANOSECONDS);
+    } else {
+      failedTimers.get(policy).record(waitNanos, TimeUnit.NANOSECONDS);
+      timeoutCounter.increment();
+    }
+  }
+
+  public void recordHold(long holdNanos) {
+    holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void recordError() {
+    errorCounter.increment();
+  }
+
+  public List<HotAccountSketch.HotAccount> hotAccounts(int limit) {
+    return hotAccountSketch.top(limit);
+  }
+}
@@ -1,11 +1,10 @@
 package com.zerobase.account.service;
 
+import com.zerobase.account.aop.LockPolicy;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.TimeUnit;
@@ -15,15 +14,23 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class LockService {
 
-  // cofing에서 설정한 이름과 같아야함
-  private final RedissonClient redissonClient;
+  // account.lock.backend 에 따라 Redisson 또는 로컬 락
+  private final LockBackend lockBackend;
+  private final LockMetrics lockMetrics;
 
   public String getLock(String accountNumber) {
-    // 락 키
-    RLock lock = redissonClient.getLock(getLockKey(accountNumber));
-    log.debug("Trying lock for accountNumber : {}", accountNumber);
+    return getLock(accountNumber, LockPolicy.DEFAULT);
+  }
+
+  public String getLock(String accountNumber, LockPolicy policy) {
+    log.debug("Trying lock for accountNumber : {}, policy : {}",
+        accountNumber, policy.getWaitPolicy());
     try {
-      boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+      long start = System.nanoTime();
+      boolean isLock = lockBackend.tryLock(getLockKey(accountNumber),
+          policy.getEffectiveWaitTime(), policy.getLeaseTime(), TimeUnit.MILLISECONDS);
+      lockMetrics.recordWait(accountNumber, policy.getWaitPolicy(),
+          System.nanoTime() - start, isLock);
       if (!isLock) {
         log.error("------------------lock acquisition failed--------------");
         throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK,
@@ -32,7 +39,8 @@ public class LockService {
     } catch (AccountException e) {
       throw e;
     } catch (Exception e) {
-      log.error("redis lock failed");
+      log.error("lock failed");
+      lockMetrics.recordError();
     }
 
     return "get lock success";
@@ -40,7 +48,7 @@ public class LockService {
 
   public void unLock(String accountNumber) {
     log.debug("Unlock for accountNumber: {}", accountNumber);
-    redissonClient.getLock(getLockKey(accountNumber)).unlock();
+    lockBackend.unlock(getLockKey(accountNumber));
   }
 
   private String getLockKey(String accountNumber) {
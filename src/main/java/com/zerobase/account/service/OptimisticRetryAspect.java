@@ -0,0 +1,89 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 낙관적 락 모드 (account.balance.mode=OPTIMISTIC)
+ * 계좌 락 없이 처리하고, 커밋 시 버전(@Version) 충돌이 나면
+ * jitter 를 준 지수 backoff 후 max-attempts 까지 다시 시도한다.
+ * account.optimistic.retries : 호출당 재시도 횟수
+ * account.optimistic.exhausted : 재시도를 모두 쓰고 실패한 수
+ */
+@Aspect
+@Component
+@Slf4j
+// 트랜잭션 advisor(가장 낮은 우선순위)보다 바깥에서 감싸야 재시도마다 새 트랜잭션이 된다.
+@Order(3)
+public class OptimisticRetryAspect {
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+  @Value("${account.optimistic.max-attempts:5}")
+  private int maxAttempts = 5;
+  @Value("${account.optimistic.backoff-base-ms:2}")
+  private long backoffBaseMs = 2L;
+  @Value("${account.optimistic.backoff-max-ms:50}")
+  private long backoffMaxMs = 50L;
+
+  private final DistributionSummary retries;
+  private final Counter exhausted;
+
+  public OptimisticRetryAspect(MeterRegistry meterRegistry) {
+    this.retries = DistributionSummary.builder("account.optimistic.retries")
+        .register(meterRegistry);
+    this.exhausted = Counter.builder("account.optimistic.exhausted")
+        .register(meterRegistry);
+  }
+
+  @Around("@annotation(com.zerobase.account.aop.OptimisticRetry)")
+  public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+    if (balanceMode != BalanceMode.OPTIMISTIC) {
+      return pjp.proceed();
+    }
+    for (int attempt = 1; ; attempt++) {
+      try {
+        Object result = pjp.proceed();
+        retries.record(attempt - 1);
+        return result;
+      } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+        if (attempt >= maxAttempts) {
+          retries.record(attempt - 1);
+          exhausted.increment();
+          log.warn("optimistic retry exhausted. attempts : {}", attempt);
+          throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        sleep(backoff(attempt));
+      }
+    }
+  }
+
+  // full jitter : 0 ~ min(max, base * 2^(attempt-1)) ms
+  long backoff(int attempt) {
+    long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.zerobase.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 야간 잔액 검증 (account.reconciliation.enabled)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.reconciliation.enabled", havingValue = "true")
+public class ReconciliationJob {
+  private final ReconciliationService reconciliationService;
+
+  @Scheduled(cron = "${account.reconciliation.cron:0 0 3 * * *}")
+  public void reconcile() {
+    reconciliationService.reconcileAll();
+  }
+}
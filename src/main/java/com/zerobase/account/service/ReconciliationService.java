@@ -0,0 +1,282 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.AccountCheckpoint;
+import com.zerobase.account.dto.BalanceChange;
+import com.zerobase.account.dto.ReconciliationResult;
+import com.zerobase.account.repository.AccountCheckpointRepository;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.BalanceMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 계좌 잔액 검증 (체크포인트 + 이후 거래 재계산)
+ * 체크포인트 이후의 성공 거래만 (transactionAt, transactionId) 순서로 다시 더해
+ * 계좌 잔액, 거래별 balanceSnapshot 과 비교한다.
+ * 계좌를 만들 때 개설 잔액으로 첫 체크포인트를 만들어 두므로, 재계산은 항상 개설 상태에서 시작한다.
+ * (그 전에 만든 계좌는 전체 검증 전에 개설 체크포인트를 backfill 한다.)
+ * 커밋이 늦게 끝날 수 있는 최근 거래(settle-lag 이내)는 체크포인트에 넣지 않는다.
+ * 전체 검증은 계좌 아이디 페이지를 ForkJoinPool(parallelism) 로 나눠 처리한다.
+ * EVENT 모드에서는 같은 재계산으로 계좌 잔액(projection)을 갱신한다. ({@link BalanceProjector})
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReconciliationService {
+  private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+  private final AccountRepository accountRepository;
+  private final AccountCheckpointRepository accountCheckpointRepository;
+  private final TransactionRepository transactionRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+
+  // 계좌마다 커넥션을 하나씩 쓰므로 커넥션 풀 크기보다 작게 둔다.
+  @Value("${account.reconciliation.parallelism:4}")
+  private int parallelism = 4;
+  @Value("${account.reconciliation.page-size:1000}")
+  private int pageSize = 1000;
+  @Value("${account.reconciliation.leaf-size:64}")
+  private int leafSize = 64;
+  @Value("${account.reconciliation.settle-lag:5m}")
+  private Duration settleLag = Duration.ofMinutes(5);
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+
+  /**
+   * 모든 계좌를 검증하고 체크포인트를 옮긴다. 잔액이 맞지 않는 계좌 수를 반환한다.
+   * 먼저 체크포인트가 없는 계좌에 개설 체크포인트를 만들고,
+   * 그래도 체크포인트가 없는 계좌는 불일치와 따로 미검증으로 센다.
+   */
+  public int reconcileAll() {
+    backfillOpeningCheckpoints();
+    LocalDateTime cutoff = LocalDateTime.now().minus(settleLag);
+    AtomicInteger mismatched = new AtomicInteger();
+    AtomicInteger unverified = new AtomicInteger();
+    int total = 0;
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      long after = 0L;
+      List<Long> accountIds;
+      while (!(accountIds = accountRepository.findAccountIdsAfter(after,
+          PageRequest.ofSize(pageSize))).isEmpty()) {
+        pool.invoke(new ReconcileTask(accountIds, 0, accountIds.size(), cutoff,
+            mismatched, unverified));
+        total += accountIds.size();
+        after = accountIds.get(accountIds.size() - 1);
+      }
+    } finally {
+      pool.shutdown();
+    }
+    meterRegistry.counter("account.reconciliation.accounts").increment(total);
+    meterRegistry.counter("account.reconciliation.mismatches").increment(mismatched.get());
+    meterRegistry.counter("account.reconciliation.unverified").increment(unverified.get());
+    log.info("reconciliation finished. accounts : {}, mismatched : {}, unverified : {}",
+        total, mismatched.get(), unverified.get());
+    return mismatched.get();
+  }
+
+  /**
+   * 체크포인트가 없는 계좌(체크포인트 도입 전에 만든 계좌)에 개설 체크포인트를 만든다.
+   * 개설 잔액 = 현재 잔액 - 지금까지의 성공 거래 잔액 변화 합 (계좌 행을 잠그고 읽는다.)
+   * EVENT 모드에서는 계좌 잔액이 거래를 다 반영했다고 볼 수 없으므로 만들지 않는다.
+   * 만든 체크포인트 수를 반환한다.
+   */
+  public int backfillOpeningCheckpoints() {
+    if (balanceMode == BalanceMode.EVENT) {
+      log.warn("opening checkpoint backfill skipped in EVENT mode");
+      return 0;
+    }
+    int created = 0;
+    long after = 0L;
+    List<Long> accountIds;
+    while (!(accountIds = accountRepository.findAccountIdsWithoutCheckpointAfter(after,
+        PageRequest.ofSize(pageSize))).isEmpty()) {
+      for (Long accountId : accountIds) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> backfill(accountId)))) {
+          created++;
+        }
+      }
+      after = accountIds.get(accountIds.size() - 1);
+    }
+    if (created > 0) {
+      meterRegistry.counter("account.reconciliation.backfilled").increment(created);
+      log.info("opening checkpoints backfilled. accounts : {}", created);
+    }
+    return created;
+  }
+
+  private boolean backfill(Long accountId) {
+    Account account = accountRepository.findForUpdate(accountId).orElse(null);
+    if (account == null || accountCheckpointRepository.existsById(accountId)) {
+      return false;
+    }
+    long opening = account.getBalance() - transactionRepository.sumBalanceChanges(accountId);
+    open(accountId, opening);
+    return true;
+  }
+
+  /**
+   * 계좌 하나를 검증하고, cutoff 까지의 거래로 체크포인트를 옮긴다.
+   */
+  public ReconciliationResult reconcile(Long accountId, LocalDateTime cutoff) {
+    return transactionTemplate.execute(status -> {
+      Replay replay = replay(accountId, cutoff);
+      advance(replay);
+      Long actual = accountRepository.findBalanceByAccountId(accountId).orElse(null);
+      return new ReconciliationResult(accountId, replay.balance(), actual,
+          replay.replayed(), replay.mismatches(), replay.checkpoint() != null);
+    });
+  }
+
+  /**
+   * 체크포인트 + 이후 거래로 계산한 잔액을 계좌 잔액(projection)에 쓰고 체크포인트를 옮긴다.
+   * 거래가 하나도 없으면 계좌 잔액을 그대로 둔다.
+   */
+  public Long project(Long accountId) {
+    LocalDateTime cutoff = LocalDateTime.now().minus(settleLag);
+    return transactionTemplate.execute(status -> {
+      Replay replay = replay(accountId, cutoff);
+      advance(replay);
+      if (replay.balance() != null) {
+        accountRepository.updateBalance(accountId, replay.balance());
+      }
+      return replay.balance();
+    });
+  }
+
+  /**
+   * 계좌 개설 상태(개설 잔액, 거래 없음)를 첫 체크포인트로 저장한다. (호출한 쪽의 트랜잭션에서)
+   */
+  public void open(Long accountId, Long openingBalance) {
+    accountCheckpointRepository.save(AccountCheckpoint.builder()
+        .accountId(accountId)
+        .balance(openingBalance)
+        .lastTransactionAt(BEGINNING)
+        .lastTransactionId(0L)
+        .build());
+  }
+
+  /**
+   * 체크포인트 + 이후 거래로 계산한 현재 잔액 (체크포인트가 없으면 null)
+   */
+  public Long replayBalance(Long accountId) {
+    return transactionTemplate.execute(status -> replay(accountId, BEGINNING).balance());
+  }
+
+  private Replay replay(Long accountId, LocalDateTime cutoff) {
+    AccountCheckpoint checkpoint = accountCheckpointRepository.findById(accountId).orElse(null);
+    if (checkpoint == null) {
+      // 개설 잔액을 알 수 없으므로 거래의 balanceSnapshot 으로 추측하지 않는다.
+      log.warn("no opening checkpoint. accountId : {}", accountId);
+      return new Replay(null, null, null, null, 0, 0);
+    }
+    long running = checkpoint.getBalance();
+    LocalDateTime afterAt = checkpoint.getLastTransactionAt();
+    Long afterId = checkpoint.getLastTransactionId();
+
+    BalanceChange settled = null;
+    Long settledBalance = null;
+    int replayed = 0;
+    int mismatches = 0;
+    try (Stream<BalanceChange> changes = transactionRepository
+        .streamBalanceChangesAfter(accountId, afterAt, afterId)) {
+      Iterator<BalanceChange> iterator = changes.iterator();
+      while (iterator.hasNext()) {
+        BalanceChange change = iterator.next();
+        running += change.delta();
+        if (!Objects.equals(running, change.balanceSnapshot())) {
+          mismatches++;
+        }
+        replayed++;
+        if (!change.transactionAt().isAfter(cutoff)) {
+          settled = change;
+          settledBalance = running;
+        }
+      }
+    }
+    return new Replay(checkpoint, running, settled, settledBalance, replayed, mismatches);
+  }
+
+  // 거래 내역이 어긋난 경우에는 체크포인트를 옮기지 않는다. (다음 검증에서도 드러나도록)
+  private void advance(Replay replay) {
+    if (replay.settled() == null || replay.mismatches() > 0) {
+      return;
+    }
+    AccountCheckpoint checkpoint = replay.checkpoint();
+    checkpoint.setBalance(replay.settledBalance());
+    checkpoint.setLastTransactionAt(replay.settled().transactionAt());
+    checkpoint.setLastTransactionId(replay.settled().transactionId());
+    accountCheckpointRepository.save(checkpoint);
+  }
+
+  private record Replay(AccountCheckpoint checkpoint, Long balance, BalanceChange settled,
+                        Long settledBalance, int replayed, int mismatches) {
+  }
+
+  // 계좌 아이디 구간을 leaf-size 이하가 될 때까지 나눠 처리한다.
+  private class ReconcileTask extends RecursiveAction {
+    private final List<Long> accountIds;
+    private final int from;
+    private final int to;
+    private final LocalDateTime cutoff;
+    private final AtomicInteger mismatched;
+    private final AtomicInteger unverified;
+
+    ReconcileTask(List<Long> accountIds, int from, int to, LocalDateTime cutoff,
+                  AtomicInteger mismatched, AtomicInteger unverified) {
+      this.accountIds = accountIds;
+      this.from = from;
+      this.to = to;
+      this.cutoff = cutoff;
+      this.mismatched = mismatched;
+      this.unverified = unverified;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= leafSize) {
+        for (int i = from; i < to; i++) {
+          reconcileOne(accountIds.get(i));
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new ReconcileTask(accountIds, from, middle, cutoff, mismatched, unverified),
+          new ReconcileTask(accountIds, middle, to, cutoff, mismatched, unverified));
+    }
+
+    private void reconcileOne(Long accountId) {
+      try {
+        ReconciliationResult result = reconcile(accountId, cutoff);
+        if (result != null && !result.verified()) {
+          unverified.incrementAndGet();
+          log.warn("balance unverified (no checkpoint). accountId : {}", accountId);
+        } else if (result != null && !result.isMatched()) {
+          mismatched.incrementAndGet();
+          log.warn("balance mismatch : {}", result);
+        }
+      } catch (RuntimeException e) {
+        mismatched.incrementAndGet();
+        log.error("reconciliation failed. accountId : {}", accountId, e);
+      }
+    }
+  }
+}
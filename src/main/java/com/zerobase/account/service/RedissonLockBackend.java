@@ -0,0 +1,29 @@
+package com.zerobase.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisson 분산 락 (여러 노드가 같은 계좌를 처리할 때)
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.lock.backend", havingValue = "REDIS", matchIfMissing = true)
+public class RedissonLockBackend implements LockBackend {
+  private final RedissonClient redissonClient;
+
+  @Override
+  public boolean tryLock(String key, long waitTime, long leaseTime, TimeUnit unit)
+      throws InterruptedException {
+    return redissonClient.getLock(key).tryLock(waitTime, leaseTime, unit);
+  }
+
+  @Override
+  public void unlock(String key) {
+    redissonClient.getLock(key).unlock();
+  }
+}
@@ -0,0 +1,117 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.aop.LockPolicy;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.zerobase.account.type.TransactionResultType.F;
+
+/**
+ * 잔액 일괄 사용
+ * 요청을 계좌번호별로 묶어 계좌마다 락을 한 번 잡고,
+ * 한 트랜잭션에서 요청 순서대로 처리한다. ({@link TransactionService#useBalances})
+ * 락이 필요 없는 모드(원장 등)에서는 건별로 처리한다.
+ * 계좌(그룹)마다 따로 커밋하므로 요청 전체가 원자적이지는 않다.
+ * 한 그룹이 예상하지 못한 오류로 실패해도 앞서 커밋된 그룹은 그대로 두고,
+ * 실패한 그룹의 요청만 F (INTERNAL_SERVER_ERROR) 로 돌려준다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+  private final TransactionService transactionService;
+  private final LockService lockService;
+
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+
+  /**
+   * 결과는 요청 순서대로 돌려준다.
+   */
+  public List<TransactionDto> useBalances(List<UseBalance.Request> requests) {
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      groups.computeIfAbsent(requests.get(i).getAccountNumber(), k -> new ArrayList<>())
+          .add(i);
+    }
+
+    TransactionDto[] results = new TransactionDto[requests.size()];
+    groups.forEach((accountNumber, indexes) -> {
+      List<UseBalance.Request> group = indexes.stream().map(requests::get).toList();
+      List<TransactionDto> groupResults;
+      try {
+        groupResults = useGroup(accountNumber, group);
+      } catch (RuntimeException e) {
+        log.error("batch group failed. accountNumber : {}", accountNumber, e);
+        groupResults = failAll(group, ErrorCode.INTERNAL_SERVER_ERROR);
+      }
+      for (int i = 0; i < indexes.size(); i++) {
+        results[indexes.get(i)] = groupResults.get(i);
+      }
+    });
+    return Arrays.asList(results);
+  }
+
+  private List<TransactionDto> useGroup(String accountNumber, List<UseBalance.Request> group) {
+    if (!balanceMode.isLockRequired()) {
+      return group.stream().map(this::useOne).toList();
+    }
+    try {
+      lockService.getLock(accountNumber, LockPolicy.DEFAULT);
+    } catch (AccountException e) {
+      return failAll(group, e.getErrorCode());
+    }
+    try {
+      return transactionService.useBalances(accountNumber, group);
+    } catch (AccountException e) {
+      // 계좌가 없는 경우 등 계좌 단위의 실패
+      return failAll(group, e.getErrorCode());
+    } finally {
+      lockService.unLock(accountNumber);
+    }
+  }
+
+  private TransactionDto useOne(UseBalance.Request request) {
+    try {
+      return transactionService.useBalance(request.getUserId(),
+          request.getAccountNumber(), request.getAmount());
+    } catch (AccountException e) {
+      try {
+        transactionService.saveFailedUseTransaction(request.getAccountNumber(),
+            request.getAmount());
+      } catch (AccountException ignored) {
+        log.debug("failed use transaction not saved : {}", request.getAccountNumber());
+      }
+      return failed(request, e.getErrorCode());
+    } catch (RuntimeException e) {
+      log.error("batch request failed. accountNumber : {}", request.getAccountNumber(), e);
+      return failed(request, ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private List<TransactionDto> failAll(List<UseBalance.Request> group, ErrorCode errorCode) {
+    return group.stream().map(request -> failed(request, errorCode)).toList();
+  }
+
+  private TransactionDto failed(UseBalance.Request request, ErrorCode errorCode) {
+    return TransactionDto.builder()
+        .accountNumber(request.getAccountNumber())
+        .transactionResultType(F)
+        .amount(request.getAmount())
+        .errorCode(errorCode)
+        .build();
+  }
+}
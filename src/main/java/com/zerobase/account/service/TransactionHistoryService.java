@@ -0,0 +1,76 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.dto.HistoryCursor;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.TransactionSummary;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 계좌별 거래 내역 (최신순, keyset 페이지)
+ * OFFSET 없이 (transactionAt, transactionId) 이후의 행만 읽고,
+ * 엔티티가 아닌 projection 으로 읽어 consumer 에 넘기므로 영속성 컨텍스트에 쌓이지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+  private final TransactionRepository transactionRepository;
+  private final AccountMetadataCache accountMetadataCache;
+
+  @Value("${account.history.max-page-size:1000}")
+  private int maxPageSize = 1000;
+
+  public Long getAccountId(String accountNumber) {
+    return accountMetadataCache.get(accountNumber).accountId();
+  }
+
+  public HistoryCursor decodeCursor(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    try {
+      return HistoryCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new AccountException(ErrorCode.INVALID_REQUEST);
+    }
+  }
+
+  /**
+   * after 다음부터 size 건을 consumer 에 넘기고, 다음 페이지 커서를 반환한다. (없으면 null)
+   */
+  @Transactional(readOnly = true)
+  public HistoryCursor streamHistory(Long accountId, HistoryCursor after, int size,
+                                     Consumer<TransactionDto> consumer) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    // 다음 페이지가 있는지 보려고 한 건 더 읽는다.
+    PageRequest page = PageRequest.ofSize(pageSize + 1);
+    try (Stream<TransactionSummary> rows = after == null
+        ? transactionRepository.streamHistory(accountId, page)
+        : transactionRepository.streamHistoryAfter(accountId,
+            after.transactionAt(), after.transactionId(), page)) {
+      Iterator<TransactionSummary> iterator = rows.iterator();
+      HistoryCursor last = null;
+      int count = 0;
+      while (iterator.hasNext()) {
+        TransactionSummary transaction = iterator.next();
+        if (count == pageSize) {
+          return last;
+        }
+        consumer.accept(TransactionDto.fromSummary(transaction));
+        last = HistoryCursor.of(transaction);
+        count++;
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.zerobase.account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순 64비트 거래 키 (Snowflake)
+ * | 41비트 epoch 이후 ms | 10비트 노드 아이디 | 12비트 ms 내 순번 |
+ * (시각, 순번)을 AtomicLong 하나에 담아 CAS 로 올리므로 락이 없다.
+ * 같은 ms 에 순번이 넘치거나 시계가 뒤로 가면 다음 ms 를 미리 당겨 써서 항상 증가한다.
+ */
+@Component
+public class TransactionIdGenerator {
+  // 2024-01-01T00:00:00Z
+  private static final long EPOCH = 1_704_067_200_000L;
+  private static final int NODE_BITS = 10;
+  private static final int SEQUENCE_BITS = 12;
+  private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+  private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+  private final long nodeBits;
+  // (epoch 이후 ms << SEQUENCE_BITS) | 순번
+  private final AtomicLong state = new AtomicLong();
+
+  public TransactionIdGenerator(@Value("${account.transaction-id.node-id:0}") long nodeId) {
+    if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+      throw new IllegalArgumentException("node-id must be 0.." + MAX_NODE_ID + " : " + nodeId);
+    }
+    this.nodeBits = nodeId << SEQUENCE_BITS;
+  }
+
+  public long next() {
+    while (true) {
+      long current = state.get();
+      long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+      long next = now > current ? now : current + 1;
+      if (state.compareAndSet(current, next)) {
+        return ((next & ~SEQUENCE_MASK) << NODE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+      }
+    }
+  }
+}
@@ -0,0 +1,186 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 거래 내역 group-commit 저널 (account.transaction-journal.enabled)
+ * 요청들이 넣은 거래 내역을 flusher 스레드가 batch-size 건 또는
+ * max-delay-micros 마다 모아 한 번의 JDBC 배치/커밋으로 저장한다.
+ * 요청 스레드는 자신이 포함된 배치가 커밋된 뒤에 응답을 받는다.
+ * <p>
+ * 주의 : 거래 내역은 호출한 쪽의 트랜잭션(잔액 변경)과 다른 커넥션으로 먼저 커밋된다.
+ * 두 커밋은 원자적이지 않으므로
+ * <ul>
+ *   <li>잔액 변경이 커밋되기 전에 다른 요청이 거래 내역을 볼 수 있고,</li>
+ *   <li>저널 커밋 뒤에 호출한 쪽이 롤백되거나 프로세스가 종료되면
+ *   잔액 변경 없는 성공(S) 거래 내역이 남는다. (잔액 검증에서 불일치로 드러난다)</li>
+ * </ul>
+ * 그래서 기본값은 꺼져 있고, 재시도로 롤백이 잦은 OPTIMISTIC 모드와는 함께 켤 수 없다.
+ * 거래 내역과 잔액이 함께 커밋되어야 하면 켜지 않는다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionJournal {
+  private static final long POLL_TIMEOUT_MS = 100L;
+
+  private final TransactionBatchRepository transactionBatchRepository;
+
+  @Value("${account.transaction-journal.enabled:false}")
+  private boolean enabled;
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+  @Value("${account.transaction-journal.capacity:8192}")
+  private int capacity = 8192;
+  @Value("${account.transaction-journal.batch-size:256}")
+  private int batchSize = 256;
+  @Value("${account.transaction-journal.max-delay-micros:500}")
+  private long maxDelayMicros = 500L;
+  @Value("${account.transaction-journal.ack-timeout-ms:10000}")
+  private long ackTimeoutMs = 10000L;
+
+  private BlockingQueue<Entry> queue;
+  private Thread flusher;
+  private volatile boolean running;
+
+  private record Entry(Transaction transaction, CompletableFuture<Transaction> ack,
+                       AtomicBoolean claimed) {
+    // flusher 가 배치에 넣거나, 기다리던 요청이 포기할 때 한 번만 성공한다.
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    queue = new ArrayBlockingQueue<>(capacity);
+    if (!enabled) {
+      return;
+    }
+    if (balanceMode == BalanceMode.OPTIMISTIC) {
+      throw new IllegalStateException("account.transaction-journal.enabled "
+          + "cannot be used with account.balance.mode=OPTIMISTIC");
+    }
+    log.warn("transaction journal enabled. transaction rows commit separately from balance "
+        + "changes; a rollback or crash after the journal commit leaves a row without its "
+        + "balance change.");
+    running = true;
+    flusher = new Thread(this::flushLoop, "transaction-journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (flusher != null) {
+      flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * 거래 내역을 저널에 넣고, 배치가 커밋될 때까지 기다린다.
+   */
+  public Transaction append(Transaction transaction) {
+    Entry entry = new Entry(transaction, new CompletableFuture<>(), new AtomicBoolean());
+    try {
+      if (!queue.offer(entry, ackTimeoutMs, TimeUnit.MILLISECONDS)) {
+        throw new AccountException(ErrorCode.TRANSACTION_JOURNAL_FULL);
+      }
+      return awaitAck(entry);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    } catch (ExecutionException e) {
+      log.error("transaction journal write failed.", e);
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private Transaction awaitAck(Entry entry) throws InterruptedException, ExecutionException {
+    try {
+      return entry.ack().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      if (entry.claim()) {
+        // 아직 배치에 들어가지 않았으므로 flusher 가 건너뛴다.
+        log.error("transaction journal ack timed out before write.");
+        throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+      }
+      // 이미 쓰는 중이므로 거래 내역은 잔액 변경 없이 남을 수 있다. (잔액 검증으로 확인)
+      log.error("transaction journal ack timed out during write. transactionKey : {}",
+          entry.transaction().getTransactionKey());
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  private void flushLoop() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Entry first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        collect(batch, System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(maxDelayMicros));
+        // 기다리다 포기한 요청은 쓰지 않는다.
+        batch.removeIf(entry -> !entry.claim());
+        if (!batch.isEmpty()) {
+          write(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        batch.forEach(entry -> entry.ack().completeExceptionally(e));
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  // 첫 건이 들어온 뒤 batch-size 가 차거나 deadline 이 될 때까지 모은다.
+  private void collect(List<Entry> batch, long deadline) throws InterruptedException {
+    while (batch.size() < batchSize) {
+      queue.drainTo(batch, batchSize - batch.size());
+      long remaining = deadline - System.nanoTime();
+      if (batch.size() >= batchSize || remaining <= 0) {
+        return;
+      }
+      Entry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+      if (next == null) {
+        return;
+      }
+      batch.add(next);
+    }
+  }
+
+  private void write(List<Entry> batch) {
+    try {
+      transactionBatchRepository.insertAll(batch.stream().map(Entry::transaction).toList());
+      batch.forEach(entry -> entry.ack().complete(entry.transaction()));
+      log.debug("transaction journal committed. size : {}", batch.size());
+    } catch (Exception e) {
+      log.error("transaction journal batch failed. size : {}", batch.size(), e);
+      batch.forEach(entry -> entry.ack().completeExceptionally(e));
+    }
+  }
+}
@@ -0,0 +1,397 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.domain.TransactionLogMarker;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.repository.TransactionLogMarkerRepository;
+import com.zerobase.account.repository.TransactionLogSegment;
+import com.zerobase.account.type.ErrorCode;
+import com.zerobase.account.type.LogSyncPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 거래 로그 (account.transaction-log.enabled)
+ * 거래 내역을 DB 대신 memory-mapped 세그먼트 파일에 기록하고 (sync-policy 에 따라 fsync),
+ * shipper 스레드가 커밋된 레코드를 모아 transaction 테이블에 JDBC 배치로 옮긴다.
+ * 레코드는 PREPARED 로 쓰고 DB 트랜잭션이 끝나면 COMMITTED / ABORTED 로 바꾸므로
+ * 롤백된 거래는 옮겨지지 않는다. 트랜잭션 안의 거래는 같은 트랜잭션으로 커밋 표시
+ * (TransactionLogMarker)를 남기므로, 상태를 바꾸기 전에 종료되어 PREPARED 로 남은 레코드는
+ * 재시작 후 shipper 가 표시가 있으면 COMMITTED, 없으면 ABORTED 로 정한다.
+ * 옮길 때는 transaction_key 로 중복을 건너뛰므로
+ * 재시작 후 같은 세그먼트를 다시 옮겨도 된다. 다 옮긴 세그먼트는 지운다.
+ * 커밋되었지만 아직 옮기지 않은 거래는 메모리에 두고, 조회/취소가 그 거래를 찾으면
+ * 먼저 DB 로 옮긴다. ({@link #shipPending})
+ * max-attempts 번 실패한 배치는 한 건씩 옮기고, 데이터 문제로 실패하는 레코드는
+ * dead-letter 로 빼고 (로그) 다음 레코드로 넘어간다.
+ * account.transaction-log.shipped : 옮긴 건수
+ * account.transaction-log.dead-letters : dead-letter 로 뺀 건수
+ * account.transaction-log.segments : 남아 있는 세그먼트 수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionLog {
+  private static final long POLL_TIMEOUT_MS = 10L;
+  private static final long RETRY_BACKOFF_MS = 500L;
+  private static final String PREFIX = "transaction-";
+  private static final String SUFFIX = ".log";
+
+  private final TransactionBatchRepository transactionBatchRepository;
+  private final MeterRegistry meterRegistry;
+  private final TransactionLogMarkerRepository transactionLogMarkerRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${account.transaction-log.enabled:false}")
+  private boolean enabled;
+  @Value("${account.transaction-log.directory:./data/transaction-log}")
+  private String directory = "./data/transaction-log";
+  @Value("${account.transaction-log.segment-size:64MB}")
+  private DataSize segmentSize = DataSize.ofMegabytes(64);
+  @Value("${account.transaction-log.sync-policy:EVERY_WRITE}")
+  private LogSyncPolicy syncPolicy = LogSyncPolicy.EVERY_WRITE;
+  @Value("${account.transaction-log.sync-interval-ms:10}")
+  private long syncIntervalMs = 10L;
+  @Value("${account.transaction-log.batch-size:500}")
+  private int batchSize = 500;
+  @Value("${account.transaction-log.max-attempts:5}")
+  private int maxAttempts = 5;
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final Deque<TransactionLogSegment> segments = new ConcurrentLinkedDeque<>();
+  // 재시작 전에 쓰인 세그먼트 (PREPARED 레코드의 결과를 shipper 가 DB 로 확인한다)
+  private final List<TransactionLogSegment> recovered = new ArrayList<>();
+  // 커밋되었지만 아직 DB 로 옮기지 않은 거래 (transactionKey)
+  private final Map<Long, Transaction> pending = new ConcurrentHashMap<>();
+  private TransactionLogSegment active;
+  private volatile long lastSyncNanos = System.nanoTime();
+  private Thread shipper;
+  private volatile boolean running;
+  private Counter shipped;
+  private Counter deadLetters;
+
+  @PostConstruct
+  public void start() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    Path dir = Paths.get(directory);
+    Files.createDirectories(dir);
+    recover(dir);
+    active = openSegment(segments.isEmpty() ? 0L : segments.peekLast().getSequence() + 1);
+    shipped = Counter.builder("account.transaction-log.shipped").register(meterRegistry);
+    deadLetters = Counter.builder("account.transaction-log.dead-letters")
+        .register(meterRegistry);
+    Gauge.builder("account.transaction-log.segments", segments, Deque::size)
+        .register(meterRegistry);
+    running = true;
+    shipper = new Thread(this::shipLoop, "transaction-log-shipper");
+    shipper.setDaemon(true);
+    shipper.start();
+  }
+
+  @PreDestroy
+  public void stop() throws InterruptedException {
+    running = false;
+    if (shipper != null) {
+      shipper.join(TimeUnit.SECONDS.toMillis(10));
+    }
+    // 옮기지 못한 레코드는 파일에 남겨 두고 다음 기동시 옮긴다.
+    for (TransactionLogSegment segment : segments) {
+      try {
+        segment.force();
+        segment.close();
+      } catch (IOException e) {
+        log.warn("transaction log segment close failed : {}", segment.getPath(), e);
+      }
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * 로그에만 있는(아직 옮기지 않은) 거래를 바로 DB 로 옮긴다. 옮겼으면 true.
+   * shipper 가 나중에 같은 레코드를 옮길 때는 transaction_key 로 건너뛴다.
+   */
+  public boolean shipPending(Long transactionKey) {
+    Transaction transaction = pending.get(transactionKey);
+    if (transaction == null) {
+      return false;
+    }
+    try {
+      shipped.increment(transactionBatchRepository.insertAllIfAbsent(List.of(transaction)));
+    } catch (SQLException e) {
+      log.error("transaction log record shipping failed. transactionKey : {}",
+          transactionKey, e);
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    }
+    pending.remove(transactionKey);
+    return true;
+  }
+
+  /**
+   * 거래를 로그에 기록한다. DB 트랜잭션 안이면 커밋될 때 COMMITTED 로 바꾼다.
+   */
+  public Transaction append(Transaction transaction) {
+    boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+    TransactionLogSegment segment;
+    int position;
+    appendLock.lock();
+    try {
+      if (!active.hasRoom()) {
+        roll();
+      }
+      segment = active;
+      if (!inTransaction) {
+        // shipper 가 옮긴 뒤에 넣으면 지워지지 않으므로 기록하기 전에 넣는다.
+        pending.put(transaction.getTransactionKey(), transaction);
+      }
+      position = segment.append(transaction,
+          inTransaction ? TransactionLogSegment.PREPARED : TransactionLogSegment.COMMITTED);
+    } catch (IOException e) {
+      pending.remove(transaction.getTransactionKey());
+      log.error("transaction log roll failed.", e);
+      throw new AccountException(ErrorCode.INTERNAL_SERVER_ERROR);
+    } finally {
+      appendLock.unlock();
+    }
+    sync(segment, position);
+    if (inTransaction) {
+      // 잔액 변경과 함께 커밋되므로 재시작시 이 레코드의 결과를 알려준다.
+      transactionLogMarkerRepository.save(
+          new TransactionLogMarker(transaction.getTransactionKey()));
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status == STATUS_COMMITTED) {
+            pending.put(transaction.getTransactionKey(), transaction);
+          }
+          segment.setState(position, status == STATUS_COMMITTED
+              ? TransactionLogSegment.COMMITTED : TransactionLogSegment.ABORTED);
+          sync(segment, position);
+        }
+      });
+    }
+    return transaction;
+  }
+
+  private void sync(TransactionLogSegment segment, int position) {
+    switch (syncPolicy) {
+      case EVERY_WRITE -> segment.force(position, TransactionLogSegment.RECORD_SIZE);
+      case INTERVAL -> {
+        long now = System.nanoTime();
+        if (now - lastSyncNanos >= TimeUnit.MILLISECONDS.toNanos(syncIntervalMs)) {
+          lastSyncNanos = now;
+          segment.force();
+        }
+      }
+      case NONE -> {
+      }
+    }
+  }
+
+  // appendLock 을 잡은 상태에서 호출한다.
+  private void roll() throws IOException {
+    if (syncPolicy != LogSyncPolicy.NONE) {
+      active.force();
+    }
+    active.seal();
+    active = openSegment(active.getSequence() + 1);
+    log.debug("transaction log rolled : {}", active.getPath());
+  }
+
+  private TransactionLogSegment openSegment(long sequence) throws IOException {
+    Path path = Paths.get(directory, String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+    TransactionLogSegment segment =
+        TransactionLogSegment.open(path, sequence, (int) segmentSize.toBytes());
+    segments.addLast(segment);
+    return segment;
+  }
+
+  // 남아 있는 세그먼트를 순서대로 다시 연다. 결과를 모르는 레코드는 shipper 가 정한다.
+  private void recover(Path dir) throws IOException {
+    List<Path> paths;
+    try (Stream<Path> files = Files.list(dir)) {
+      paths = files.filter(path -> {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+      }).sorted().toList();
+    }
+    for (Path path : paths) {
+      String name = path.getFileName().toString();
+      long sequence = Long.parseLong(
+          name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+      TransactionLogSegment segment =
+          TransactionLogSegment.open(path, sequence, (int) segmentSize.toBytes());
+      segment.seal();
+      segments.addLast(segment);
+      recovered.add(segment);
+    }
+    log.info("transaction log recovered. segments : {}", paths.size());
+  }
+
+  // 재시작 전의 PREPARED 레코드를 커밋 표시로 COMMITTED / ABORTED 로 정한다.
+  private void resolveRecovered() {
+    for (TransactionLogSegment segment : recovered) {
+      List<TransactionLogSegment.Entry> prepared = segment.readPrepared();
+      if (prepared.isEmpty()) {
+        continue;
+      }
+      List<Long> keys = prepared.stream()
+          .map(entry -> entry.transaction().getTransactionKey())
+          .toList();
+      Set<Long> committed = new HashSet<>();
+      transactionTemplate.executeWithoutResult(status ->
+          transactionLogMarkerRepository.findAllById(keys)
+              .forEach(marker -> committed.add(marker.getTransactionKey())));
+      for (TransactionLogSegment.Entry entry : prepared) {
+        boolean isCommitted = committed.contains(entry.transaction().getTransactionKey());
+        segment.setState(entry.position(), isCommitted
+            ? TransactionLogSegment.COMMITTED : TransactionLogSegment.ABORTED);
+        log.warn("transaction log record resolved. transactionKey : {}, committed : {}",
+            entry.transaction().getTransactionKey(), isCommitted);
+      }
+      segment.force();
+    }
+    for (TransactionLogSegment segment : recovered) {
+      for (TransactionLogSegment.Entry entry : segment.readResolved(0, Integer.MAX_VALUE)) {
+        if (entry.isCommitted()) {
+          pending.put(entry.transaction().getTransactionKey(), entry.transaction());
+        }
+      }
+    }
+    recovered.clear();
+  }
+
+  private void shipLoop() {
+    int position = 0;
+    while (running && !recovered.isEmpty()) {
+      try {
+        resolveRecovered();
+      } catch (Exception e) {
+        log.error("transaction log recovery failed.", e);
+        try {
+          Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    int attempts = 0;
+    while (running) {
+      TransactionLogSegment head = segments.peekFirst();
+      try {
+        List<TransactionLogSegment.Entry> entries = head.readResolved(position, batchSize);
+        if (entries.isEmpty()) {
+          if (head.isSealed() && position >= head.getWritePosition()) {
+            segments.pollFirst();
+            head.delete();
+            position = 0;
+            continue;
+          }
+          Thread.sleep(POLL_TIMEOUT_MS);
+          continue;
+        }
+        List<Transaction> committed = entries.stream()
+            .filter(TransactionLogSegment.Entry::isCommitted)
+            .map(TransactionLogSegment.Entry::transaction)
+            .toList();
+        if (!committed.isEmpty()) {
+          if (attempts >= maxAttempts) {
+            shipEach(committed);
+          } else {
+            ship(committed);
+          }
+        }
+        position = entries.get(entries.size() - 1).position()
+            + TransactionLogSegment.RECORD_SIZE;
+        attempts = 0;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        // 실패한 배치는 같은 위치부터 다시 옮긴다.
+        attempts++;
+        log.error("transaction log shipping failed. segment : {}, attempts : {}",
+            head.getPath(), attempts, e);
+        try {
+          Thread.sleep(RETRY_BACKOFF_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void ship(List<Transaction> committed) throws SQLException {
+    int inserted = transactionBatchRepository.insertAllIfAbsent(committed);
+    shipped.increment(inserted);
+    // 옮긴 거래의 커밋 표시는 더 필요 없다.
+    List<Long> keys = committed.stream().map(Transaction::getTransactionKey).toList();
+    keys.forEach(pending::remove);
+    transactionTemplate.executeWithoutResult(status ->
+        transactionLogMarkerRepository.deleteAllByIdInBatch(keys));
+  }
+
+  // 한 건씩 옮겨 실패 원인이 된 레코드만 골라낸다. 연결 문제면 배치를 다시 시도한다.
+  // (이미 옮긴 레코드는 transaction_key 로 건너뛴다.)
+  private void shipEach(List<Transaction> committed) throws SQLException {
+    for (Transaction transaction : committed) {
+      try {
+        ship(List.of(transaction));
+      } catch (SQLException | RuntimeException e) {
+        if (LedgerJournal.isTransient(e)) {
+          throw e;
+        }
+        deadLetter(transaction, e);
+      }
+    }
+  }
+
+  private void deadLetter(Transaction transaction, Exception e) {
+    pending.remove(transaction.getTransactionKey());
+    transactionTemplate.executeWithoutResult(status ->
+        transactionLogMarkerRepository.deleteAllByIdInBatch(
+            List.of(transaction.getTransactionKey())));
+    deadLetters.increment();
+    log.error("transaction log record dead-lettered. transactionKey : {}, accountId : {}, "
+            + "type : {}, result : {}, amount : {}, balanceSnapshot : {}, transactionAt : {}",
+        transaction.getTransactionKey(), transaction.getAccount().getAccountId(),
+        transaction.getTransactionType(), transaction.getTransactionResultType(),
+        transaction.getAmount(), transaction.getBalanceSnapshot(),
+        transaction.getTransactionAt(), e);
+  }
+}
@@ -1,25 +1,33 @@
 package com.zerobase.account.service;
 
+import com.zerobase.account.aop.OptimisticRetry;
 import com.zerobase.account.domain.Account;
 import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.domain.Base62;
 import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.AccountMetadata;
 import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.UseBalance;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.repository.AccountRepository;
 import com.zerobase.account.repository.AccountUserRepository;
 import com.zerobase.account.repository.TransactionRepository;
 import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.BalanceMode;
 import com.zerobase.account.type.ErrorCode;
 import com.zerobase.account.type.TransactionResultType;
 import com.zerobase.account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
 
 import static com.zerobase.account.type.TransactionResultType.*;
 import static com.zerobase.account.type.TransactionType.*;
@@ -31,30 +39,81 @@ public class TransactionService {
   private final TransactionRepository transactionRepository;
   private final AccountUserRepository accountUserRepository;
   private final AccountRepository accountRepository;
+  private final BalanceLedger balanceLedger;
+  private final TransactionJournal transactionJournal;
+  private final TransactionLog transactionLog;
+  private final AccountMetadataCache accountMetadataCache;
+  private final TransactionIdGenerator transactionIdGenerator;
+  private final FailedTransactionRecorder failedTransactionRecorder;
+
+  @Value("${account.balance.mode:LOCK}")
+  private BalanceMode balanceMode = BalanceMode.LOCK;
+
   /**
    * 사용자 없는 경우, 사용자 아이디와 계좌 소유주가 다른경우,
    * 계좌가 이미 해지 상태인 경우, 거래 금액이 잔액보다 큰 경우,
    * 거래금액이 너무 작거나 큰 경우 실패 응답*/
   @Transactional
+  @OptimisticRetry
   public TransactionDto useBalance(Long userId, String accountNumber,
                                    Long amount) {
-    AccountUser user = accountUserRepository.findById(userId)
-        .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
-    Account account = accountRepository.findByAccountNumber(accountNumber)
-        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    if (balanceLedger.isEnabled()) {
+      return balanceLedger.useBalance(userId, accountNumber, amount);
+    }
+    AccountMetadata metadata = accountMetadataCache.get(accountNumber);
+    validateAccountOwner(userId, metadata);
+    if (balanceMode == BalanceMode.ATOMIC) {
+      return TransactionDto.fromEntity(
+          saveEndTransaction(S, debit(metadata, amount), amount));
+    }
+    Account account = getAccount(metadata);
 
-    validateUseBalance(user, account, amount);
+    validateUseBalance(account, amount);
 
     account.useBalance(amount);
 
     return TransactionDto.fromEntity(saveEndTransaction(S, account, amount));
   }
 
-  private void validateUseBalance(AccountUser user, Account account, Long amount) {
-    if (!Objects.equals(user.getAccountUserId(),
-        account.getAccountUser().getAccountUserId())) {
+  // 조건부 UPDATE 한 번으로 차감한다. 조건(잔액, 상태)이 맞지 않으면 갱신되는 행이 없다.
+  private Account debit(AccountMetadata metadata, Long amount) {
+    if (accountRepository.debit(metadata.accountId(), amount) == 0) {
+      // 실패 사유(해지, 잔액 부족)를 알려주려고 실패한 경우에만 계좌를 읽는다.
+      validateUseBalance(getAccount(metadata), amount);
+      throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+    }
+    // 갱신한 행은 커밋까지 잠겨 있으므로 방금 반영한 잔액이 읽힌다. (거래 내역의 잔액)
+    return getAccount(metadata);
+  }
+
+  private Account credit(AccountMetadata metadata, Long amount) {
+    if (accountRepository.credit(metadata.accountId(), amount) == 0) {
+      throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+    }
+    return getAccount(metadata);
+  }
+
+  // 캐시된 메타데이터로 소유주/상태를 먼저 확인한다.
+  private void validateAccountOwner(Long userId, AccountMetadata metadata) {
+    if (!Objects.equals(userId, metadata.ownerId())) {
+      // 소유주가 다를 때만 사용자가 있는지 조회한다.
+      accountUserRepository.findById(userId)
+          .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
       throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
     }
+    if (metadata.accountStatus() != AccountStatus.IN_USE) {
+      throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISIERED);
+    }
+  }
+
+  // 잔액은 바뀌므로 계좌는 아이디(PK)로 DB 에서 읽는다.
+  private Account getAccount(AccountMetadata metadata) {
+    return accountRepository.findById(metadata.accountId())
+        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+  }
+
+  private void validateUseBalance(Account account, Long amount) {
+    // 다른 노드에서 해지되어 캐시가 아직 남아 있는 경우
     if (account.getAccountStatus() != AccountStatus.IN_USE) {
       throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISIERED);
     }
@@ -64,53 +123,121 @@ public class TransactionService {
 
   }
 
-  @Transactional
+  /**
+   * 실패 거래는 비동기로 기록한다. ({@link FailedTransactionRecorder})
+   * 요청 스레드에서는 DB 를 기다리지 않으므로 락 보유 시간과 실패 응답이 늘어나지 않는다.
+   */
   public void saveFailedUseTransaction(String accountNumber, Long amount) {
-    Account account = accountRepository.findByAccountNumber(accountNumber)
-        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-
-    saveEndTransaction(F, account, amount);
+    if (balanceLedger.isEnabled()) {
+      balanceLedger.saveFailedUseTransaction(accountNumber, amount);
+      return;
+    }
+    if (!failedTransactionRecorder.record(accountNumber, amount)) {
+      log.warn("failed transaction queue is full. dropped : {}", accountNumber);
+    }
   }
   @Transactional
   public Transaction saveEndTransaction(
       TransactionResultType f, Account account, Long amount) {
-    return transactionRepository.save(
-        Transaction.builder()
-            .transactionType(USE)
-            .transactionResultType(f)
-            .account(account)
-            .amount(amount)
-            .balanceSnapshot(account.getBalance())
-            .transactionUUID(UUID.randomUUID().toString().replace("-", ""))
-            .transactionAt(LocalDateTime.now())
-            .build());
+    return persist(newTransaction(USE, f, account, amount));
   }
+
+  /**
+   * 같은 계좌의 잔액 사용 요청들을 요청 순서대로 한 트랜잭션에서 처리한다. (일괄 사용)
+   * 계좌 락은 호출하는 쪽에서 잡는다.
+   * 요청별 실패는 실패 거래(F)로 남기고, 거래 내역은 saveAll 로 한 번에(JDBC batch) 저장한다.
+   */
   @Transactional
+  public List<TransactionDto> useBalances(String accountNumber,
+                                          List<UseBalance.Request> requests) {
+    AccountMetadata metadata = accountMetadataCache.get(accountNumber);
+    Account account = getAccount(metadata);
+
+    List<Transaction> transactions = new ArrayList<>(requests.size());
+    List<ErrorCode> errorCodes = new ArrayList<>(requests.size());
+    for (UseBalance.Request request : requests) {
+      try {
+        validateAccountOwner(request.getUserId(), metadata);
+        validateUseBalance(account, request.getAmount());
+        account.useBalance(request.getAmount());
+        transactions.add(newTransaction(USE, S, account, request.getAmount()));
+        errorCodes.add(null);
+      } catch (AccountException e) {
+        transactions.add(newTransaction(USE, F, account, request.getAmount()));
+        errorCodes.add(e.getErrorCode());
+      }
+    }
+
+    List<Transaction> saved = transactionRepository.saveAll(transactions);
+    List<TransactionDto> results = new ArrayList<>(saved.size());
+    for (int i = 0; i < saved.size(); i++) {
+      TransactionDto transactionDto = TransactionDto.fromEntity(saved.get(i));
+      transactionDto.setErrorCode(errorCodes.get(i));
+      results.add(transactionDto);
+    }
+    return results;
+  }
+  // 조회 전용 : readOnly 트랜잭션은 flush mode 가 MANUAL 이 되어 dirty checking 을 하지 않는다.
+  @Transactional(readOnly = true)
   public TransactionDto queryTransaction(String transactionId) {
-    return TransactionDto.fromEntity(
-        transactionRepository.findByTransactionUUID(transactionId)
+    Long transactionKey = toTransactionKey(transactionId);
+    if (balanceLedger.isEnabled()) {
+      TransactionDto pending = balanceLedger.queryPending(transactionKey);
+      if (pending != null) {
+        return pending;
+      }
+    }
+    if (transactionLog.isEnabled()) {
+      // 로그에만 있는 거래는 먼저 DB 로 옮겨 같은 방법으로 조회한다.
+      transactionLog.shipPending(transactionKey);
+    }
+    return TransactionDto.fromSummary(
+        transactionRepository.findSummaryByTransactionKey(transactionKey)
             .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND))
     );
   }
 
+  // 외부 거래 아이디(Base62)를 거래 키로 바꾼다. 형식이 맞지 않으면 없는 거래로 본다.
+  private Long toTransactionKey(String transactionId) {
+    try {
+      return Base62.decode(transactionId);
+    } catch (IllegalArgumentException e) {
+      throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+    }
+  }
+
+  @Transactional
+  @OptimisticRetry
   public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
-    Transaction transaction = transactionRepository.findByTransactionUUID(transactionId)
+    Long transactionKey = toTransactionKey(transactionId);
+    if (balanceLedger.isEnabled()) {
+      return balanceLedger.cancelBalance(transactionKey, accountNumber, amount);
+    }
+    if (transactionLog.isEnabled()) {
+      // 취소 거래가 원거래를 가리키도록 로그에만 있는 원거래를 먼저 DB 로 옮긴다.
+      transactionLog.shipPending(transactionKey);
+    }
+    Transaction transaction = transactionRepository.findByTransactionKey(transactionKey)
         .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));    //잔액 사용 취소.
-    Account account = accountRepository.findByAccountNumber(accountNumber)
-        .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));        //계좌가 없는 경우
-
-    validateCancelBalance(transaction, account, amount);
+    AccountMetadata metadata = accountMetadataCache.get(accountNumber);        //계좌가 없는 경우
+    validateCancelBalance(transaction, metadata, amount);
+    if (balanceMode == BalanceMode.ATOMIC) {
+      return TransactionDto.fromEntity(
+          saveCancelTransaction(transaction, credit(metadata, amount), amount));
+    }
+    Account account = getAccount(metadata);
 
     account.cancelBalance(amount);
 
     return TransactionDto.fromEntity(
-        saveAndGetTransaction(CANCEL, S, account, amount)
+        saveCancelTransaction(transaction, account, amount)
     );
   }
 
-  private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+  private void validateCancelBalance(Transaction transaction, AccountMetadata metadata,
+                                     Long amount) {
     if (!Objects.equals(transaction.getAccount().getAccountId(),
-        account.getAccountId())) {
+        metadata.accountId())) {
       throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
     }
     if (!Objects.equals(transaction.getAmount(), amount)) {
@@ -121,24 +248,47 @@ public class TransactionService {
     }
   }
 
-  private Transaction saveAndGetTransaction(
+  /**
+   * 취소 거래는 원거래를 가리키고, 그 컬럼은 unique 이다.
+   * 이미 취소된 거래인지는 따로 조회하지 않고 INSERT 의 unique 제약으로 확인한다.
+   * (저널의 group-commit 배치에 섞이면 다른 거래까지 실패하므로 바로 flush 한다)
+   */
+  private Transaction saveCancelTransaction(Transaction original, Account account, Long amount) {
+    Transaction cancel = newTransaction(CANCEL, S, account, amount);
+    cancel.setCanceledTransaction(original);
+    try {
+      return transactionRepository.saveAndFlush(cancel);
+    } catch (DataIntegrityViolationException e) {
+      throw new AccountException(ErrorCode.TRANSACTION_ALREADY_CANCELED);
+    }
+  }
+
+  private Transaction newTransaction(
       TransactionType transactionType,
       TransactionResultType transactionResultType,
       Account account,
       Long amount
   ) {
-
-    return transactionRepository.save(
-        Transaction.builder()
-            .transactionType(transactionType)
-            .transactionResultType(transactionResultType)
-            .account(account)
-            .amount(amount)
-            .balanceSnapshot(account.getBalance())
-            .transactionUUID(UUID.randomUUID().toString().replace("-", ""))
-            .transactionAt(LocalDateTime.now())
-            .build()
-    );
+    return Transaction.builder()
+        .transactionType(transactionType)
+        .transactionResultType(transactionResultType)
+        .account(account)
+        .amount(amount)
+        .balanceSnapshot(account.getBalance())
+        .transactionKey(transactionIdGenerator.next())
+        .transactionAt(LocalDateTime.now())
+        .build();
   }
 
+  // 로컬 거래 로그가 켜져 있으면 로그에 기록하고 DB 에는 shipper 가 옮긴다.
+  // 저널이 켜져 있으면 group-commit 으로 저장한다.
+  private Transaction persist(Transaction transaction) {
+    if (transactionLog.isEnabled()) {
+      return transactionLog.append(transaction);
+    }
+    if (transactionJournal.isEnabled()) {
+      return transactionJournal.append(transaction);
+    }
+    return transactionRepository.save(transaction);
+  }
 }
@@ -0,0 +1,11 @@
+package com.zerobase.account.type;
+
+/**
+ * 계좌번호 블록을 확보하는 곳
+ * SEQUENCE : DB 시퀀스 (account_number_seq)
+ * REDIS    : Redis INCRBY (여러 노드가 같은 Redis 를 볼 때)
+ */
+public enum AccountNumberSource {
+  SEQUENCE,
+  REDIS
+}
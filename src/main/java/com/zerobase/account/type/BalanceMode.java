@@ -0,0 +1,28 @@
+package com.zerobase.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 잔액 처리 방식
+ * LOCK   : 계좌 락을 잡고 DB 의 계좌를 직접 갱신한다.
+ * LEDGER : 계좌별 메모리 원장에서 CAS 로 처리하고, DB 반영은 저널이 비동기로 한다.
+ * ATOMIC : 락 없이 조건부 UPDATE 한 번으로 잔액을 갱신하고, 갱신된 행 수로 성공 여부를 판단한다.
+ * OPTIMISTIC : 락 없이 처리하고, 계좌 버전(@Version)이 충돌하면 다시 시도한다.
+ * EVENT  : 메모리 원장과 같지만 저널은 거래(이벤트)만 추가하고,
+ *          계좌 잔액은 체크포인트 + 이후 이벤트로 다시 계산하는 projection 으로 둔다.
+ */
+@Getter
+@AllArgsConstructor
+public enum BalanceMode {
+  LOCK(true, false),
+  LEDGER(false, true),
+  ATOMIC(false, false),
+  OPTIMISTIC(false, false),
+  EVENT(false, true);
+
+  // 계좌 락(@AccountLock)이 필요한지 여부
+  private final boolean lockRequired;
+  // 메모리 원장({@code BalanceLedger})으로 처리하는지 여부
+  private final boolean ledger;
+}
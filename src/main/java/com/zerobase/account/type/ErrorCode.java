@@ -21,7 +21,11 @@ public enum ErrorCode {
   TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다"),
   CANCEL_MUST_FULLY("부분 취소는 허용되지 않습니다.(거래금액과 거래 취소 금액이 다른 경우)"),
   TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능합니다."),
-  ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다.");
+  TRANSACTION_ALREADY_CANCELED("이미 취소된 거래입니다."),
+  ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
+  LEDGER_JOURNAL_FULL("거래가 밀려 있습니다. 잠시 후 다시 시도해주세요."),
+  TRANSACTION_JOURNAL_FULL("거래 내역 저장이 밀려 있습니다. 잠시 후 다시 시도해주세요."),
+  ACCOUNT_NUMBER_EXHAUSTED("더 이상 발급할 수 있는 계좌번호가 없습니다.");
 
   private final String description;
 
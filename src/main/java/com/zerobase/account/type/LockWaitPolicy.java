@@ -0,0 +1,11 @@
+package com.zerobase.account.type;
+
+/**
+ * 계좌 락을 바로 얻지 못했을 때의 동작
+ * FAIL_FAST : 기다리지 않고 바로 ACCOUNT_TRANSACTION_LOCK 로 실패한다.
+ * QUEUE     : tryLockTime 만큼 기다린 뒤 실패한다.
+ */
+public enum LockWaitPolicy {
+  FAIL_FAST,
+  QUEUE
+}
@@ -0,0 +1,13 @@
+package com.zerobase.account.type;
+
+/**
+ * 로컬 거래 로그의 디스크 동기화(fsync) 시점
+ * EVERY_WRITE : 기록할 때마다 동기화한다. 응답 시점에 디스크에 남아 있다.
+ * INTERVAL    : sync-interval-ms 마다 한 번 동기화한다. (그 사이 장애시 유실 가능)
+ * NONE        : 운영체제에 맡긴다. (프로세스 장애는 견디지만 서버 장애시 유실 가능)
+ */
+public enum LogSyncPolicy {
+  EVERY_WRITE,
+  INTERVAL,
+  NONE
+}
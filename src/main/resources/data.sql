@@ -5,4 +5,7 @@ insert into account_user(account_user_id,name,created_at,updated_at)
 values (2, 'prro',now() ,now());
 
 insert into account_user(account_user_id,name,created_at,updated_at)
-values (3, 'prro',now() ,now());
\ No newline at end of file
+values (3, 'prro',now() ,now());
+
+-- 위에서 직접 넣은 아이디 이후부터 시퀀스를 사용한다.
+alter sequence account_user_seq restart with 4;
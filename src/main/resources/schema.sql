@@ -0,0 +1,2 @@
+-- 계좌번호 블록 할당용 시퀀스 (INCREMENT BY 는 account.number.block-size 와 같아야 한다)
+create sequence if not exists account_number_seq start with 0 minvalue 0 increment by 100;
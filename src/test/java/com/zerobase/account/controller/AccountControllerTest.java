@@ -1,11 +1,14 @@
 package com.zerobase.account.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerobase.account.dto.AccountDetail;
 import com.zerobase.account.dto.AccountDto;
+import com.zerobase.account.dto.AccountInfo;
 import com.zerobase.account.dto.CreateAccount;
 import com.zerobase.account.dto.DeleteAccount;
 import com.zerobase.account.service.AccountService;
 import com.zerobase.account.service.LockService;
+import com.zerobase.account.type.AccountStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -111,11 +114,11 @@ class AccountControllerTest {
   @Test
   void GetAccount_success() throws Exception {
     //given
-    List<AccountDto> accountDtos = Arrays.asList(
-        AccountDto.builder()
+    List<AccountInfo> accountDtos = Arrays.asList(
+        AccountInfo.builder()
             .accountNumber("123456")
             .balance(1000L).build(),
-        AccountDto.builder()
+        AccountInfo.builder()
             .accountNumber("123456")
             .balance(1000L).build());
 
@@ -141,4 +144,21 @@ class AccountControllerTest {
         .andExpect(jsonPath("$.errorMessage").value("잘못된 요청이 들어왔습니다."))
         .andDo(print());
   }
-}
\ No newline at end of file
+
+  @Test
+  void GetAccountById_success() throws Exception {
+    //given
+    given(accountService.getAccount(anyLong()))
+        .willReturn(new AccountDetail(1L, 12L, "1000000012", 1000L,
+            AccountStatus.IN_USE, LocalDateTime.now(), null));
+    //then
+    mockMvc.perform(get("/account/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.accountId").value(1))
+        .andExpect(jsonPath("$.userId").value(12))
+        .andExpect(jsonPath("$.accountNumber").value("1000000012"))
+        .andExpect(jsonPath("$.balance").value(1000L))
+        .andExpect(jsonPath("$.accountStatus").value("IN_USE"))
+        .andDo(print());
+  }
+}
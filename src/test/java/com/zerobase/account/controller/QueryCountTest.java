@@ -0,0 +1,135 @@
+package com.zerobase.account.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.CreateAccount;
+import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 엔드포인트별로 실행되는 SQL 수를 Hibernate 통계로 확인한다.
+ * 연관관계가 LAZY 이므로 각 조회가 필요한 만큼만 (fetch join / entity graph) 읽는지 본다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountTest {
+  private static final long USER_ID = 2L;
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private AccountRepository accountRepository;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private String accountNumber;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // 설정 프로퍼티로 켜면 컨텍스트가 따로 만들어지므로 실행 중에 켠다.
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    String response = mockMvc.perform(post("/account")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                new CreateAccount.Request(USER_ID, 100_000L))))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    accountNumber = objectMapper.readValue(response, CreateAccount.Response.class)
+        .getAccountNumber();
+  }
+
+  private UseBalance.Response useBalance(long amount) throws Exception {
+    String response = mockMvc.perform(post("/transaction/use")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                new UseBalance.Request(USER_ID, accountNumber, amount))))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readValue(response, UseBalance.Response.class);
+  }
+
+  private long accountUserLoads() {
+    return statistics.getEntityStatistics(AccountUser.class.getName()).getLoadCount();
+  }
+
+  @Test
+  void getAccount() throws Exception {
+    //given
+    Long accountId = accountRepository.findByAccountNumber(accountNumber).get().getAccountId();
+    statistics.clear();
+
+    //when
+    mockMvc.perform(get("/account/" + accountId))
+        .andExpect(status().isOk());
+
+    //then
+    // account 의 필요한 컬럼만 (projection)
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void getAccountByUserId() throws Exception {
+    //given
+    statistics.clear();
+
+    //when
+    mockMvc.perform(get("/account?user_id=" + USER_ID))
+        .andExpect(status().isOk());
+
+    //then
+    // account_user 존재 확인, account projection
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  void useBalance() throws Exception {
+    //given
+    useBalance(100L); // 메타데이터 캐시, 아이디 블록을 채운다.
+    statistics.clear();
+
+    //when
+    useBalance(100L);
+
+    //then
+    // account 조회, transaction insert, account update
+    assertEquals(3, statistics.getPrepareStatementCount());
+    assertEquals(0, accountUserLoads());
+  }
+
+  @Test
+  void queryTransaction() throws Exception {
+    //given
+    String transactionId = useBalance(100L).getTransactionId();
+    statistics.clear();
+
+    //when
+    mockMvc.perform(get("/transaction/" + transactionId))
+        .andExpect(status().isOk());
+
+    //then
+    // transaction join account projection
+    assertEquals(1, statistics.getPrepareStatementCount());
+    assertEquals(0, statistics.getEntityLoadCount());
+  }
+}
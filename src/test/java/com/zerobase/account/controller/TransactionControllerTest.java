@@ -2,27 +2,43 @@ package com.zerobase.account.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zerobase.account.dto.CancelBalance;
+import com.zerobase.account.dto.HistoryCursor;
 import com.zerobase.account.dto.TransactionDto;
 import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.dto.UseBalanceBatch;
+import com.zerobase.account.service.TransactionBatchService;
+import com.zerobase.account.service.TransactionHistoryService;
 import com.zerobase.account.service.TransactionService;
+import com.zerobase.account.type.ErrorCode;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
+import static com.zerobase.account.type.TransactionResultType.F;
 import static com.zerobase.account.type.TransactionResultType.S;
 import static com.zerobase.account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
@@ -30,6 +46,10 @@ class TransactionControllerTest {
 
   @MockBean
   private TransactionService transactionService;
+  @MockBean
+  private TransactionBatchService transactionBatchService;
+  @MockBean
+  private TransactionHistoryService transactionHistoryService;
   @Autowired
   private MockMvc mockMvc;
   @Autowired
@@ -137,4 +157,68 @@ class TransactionControllerTest {
         .andExpect(jsonPath("$.transactionId").value("transactionIdForCancel"))
         .andExpect(jsonPath("$.amount").value(54321));
   }
-}
\ No newline at end of file
+
+  @Test
+  void useBalanceBatch_success() throws Exception {
+    given(transactionBatchService.useBalances(anyList()))
+        .willReturn(List.of(
+            TransactionDto.builder()
+                .accountNumber("1000000000")
+                .transactionId("testId")
+                .amount(1000L)
+                .transactionResultType(S)
+                .transactionAt(LocalDateTime.now()).build(),
+            TransactionDto.builder()
+                .accountNumber("1000000000")
+                .amount(5000L)
+                .transactionResultType(F)
+                .errorCode(ErrorCode.AMOUNT_EXCEED_BALANCE).build()));
+    //when
+    mockMvc.perform(post("/transaction/use/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                new UseBalanceBatch.Request(List.of(
+                    new UseBalance.Request(12L, "1000000000", 1000L),
+                    new UseBalance.Request(12L, "1000000000", 5000L)))
+            ))).andDo(print())
+        //then
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].transactionId").value("testId"))
+        .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+        .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+        .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+  }
+
+  @Test
+  void transactionHistory_success() throws Exception {
+    //given
+    LocalDateTime transactionAt = LocalDateTime.of(2026, 10, 18, 12, 0);
+    HistoryCursor next = new HistoryCursor(transactionAt, 7L);
+    given(transactionHistoryService.getAccountId(anyString())).willReturn(1L);
+    given(transactionHistoryService.streamHistory(eq(1L), isNull(), anyInt(), any()))
+        .willAnswer(invocation -> {
+          Consumer<TransactionDto> consumer = invocation.getArgument(3);
+          consumer.accept(TransactionDto.builder()
+              .accountNumber("1000000000")
+              .transactionType(USE)
+              .transactionResultType(S)
+              .transactionId("testId")
+              .amount(1000L)
+              .transactionAt(transactionAt).build());
+          return next;
+        });
+
+    //when
+    MvcResult result = mockMvc.perform(get("/transaction/history/1000000000?size=1"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    //then
+    mockMvc.perform(asyncDispatch(result))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.transactions[0].transactionId").value("testId"))
+        .andExpect(jsonPath("$.transactions[0].amount").value(1000L))
+        .andExpect(jsonPath("$.nextCursor").value(next.encode()));
+  }
+}
@@ -0,0 +1,27 @@
+package com.zerobase.account.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base62Test {
+
+  @Test
+  void encodeAndDecode() {
+    assertEquals("0", Base62.encode(0L));
+    assertEquals("z", Base62.encode(61L));
+    assertEquals("10", Base62.encode(62L));
+    assertEquals("AzL8n0Y58m7", Base62.encode(Long.MAX_VALUE));
+    assertEquals(Long.MAX_VALUE, Base62.decode("AzL8n0Y58m7"));
+    assertEquals(123456789L, Base62.decode(Base62.encode(123456789L)));
+  }
+
+  @Test
+  void decodeInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> Base62.decode(""));
+    assertThrows(IllegalArgumentException.class, () -> Base62.decode("abc-def"));
+    assertThrows(IllegalArgumentException.class, () -> Base62.decode("zzzzzzzzzzz"));
+    assertThrows(IllegalArgumentException.class,
+        () -> Base62.decode("c2033bb6d82a4250aecf8e27c49b63f6"));
+  }
+}
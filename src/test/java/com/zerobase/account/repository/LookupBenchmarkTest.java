@@ -0,0 +1,120 @@
+package com.zerobase.account.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 테이블 크기에 따른 계좌번호 / 거래 키 조회 지연 측정
+ * ./gradlew test --tests '*LookupBenchmarkTest' -Dbenchmark=true -Dbenchmark.rows=10000000
+ * (build.gradle 에서 benchmark* 시스템 프로퍼티를 테스트 JVM 으로 넘긴다.)
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LookupBenchmarkTest {
+  private static final Logger log = LoggerFactory.getLogger(LookupBenchmarkTest.class);
+  private static final int INSERT_BATCH = 10_000;
+  private static final int WARMUP = 1_000;
+  private static final int SAMPLES = 10_000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private AccountRepository accountRepository;
+  @Autowired
+  private TransactionRepository transactionRepository;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final long targetRows = Long.getLong("benchmark.rows", 1_000_000L);
+
+  @Test
+  void lookupLatencyAsTablesGrow() {
+    long loaded = 0;
+    for (long rows = 10_000; rows <= targetRows; rows *= 10) {
+      insertRows(loaded, rows);
+      loaded = rows;
+      long size = loaded;
+      log.info("rows {} : findByAccountNumber {}", size,
+          measure(() -> accountRepository.findByAccountNumber(accountNumber(random(size)))));
+      log.info("rows {} : findByTransactionKey {}", size,
+          measure(() -> transactionRepository.findByTransactionKey(random(size))));
+    }
+    log.info("plan : {}", jdbcTemplate.queryForList(
+        "explain select * from transaction where transaction_key = ?", 1L));
+    assertTrue(loaded > 0);
+  }
+
+  private void insertRows(long from, long to) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    for (long start = from; start < to; start += INSERT_BATCH) {
+      long end = Math.min(to, start + INSERT_BATCH);
+      Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+      List<Object[]> accounts = new ArrayList<>();
+      List<Object[]> transactions = new ArrayList<>();
+      for (long i = start; i < end; i++) {
+        long id = i + 1_000_000L;
+        accounts.add(new Object[]{id, accountNumber(i), 1L, 10000L, "IN_USE", 0L, now, now, now});
+        transactions.add(new Object[]{id, "USE", "S", id, 100L, 9900L,
+            i, now, now, now});
+      }
+      transactionTemplate.executeWithoutResult(status -> {
+        jdbcTemplate.batchUpdate("insert into account (account_id, account_number, "
+            + "account_user_id, balance, account_status, version, registered_at, created_at, "
+            + "updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", accounts);
+        jdbcTemplate.batchUpdate("insert into transaction (transaction_id, transaction_type, "
+            + "transaction_result_type, account_id, amount, balance_snapshot, transaction_key, "
+            + "transaction_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            transactions);
+      });
+    }
+  }
+
+  private String measure(Runnable lookup) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    long[] nanos = new long[SAMPLES];
+    transactionTemplate.executeWithoutResult(status -> {
+      for (int i = 0; i < WARMUP; i++) {
+        lookup.run();
+      }
+      for (int i = 0; i < SAMPLES; i++) {
+        long start = System.nanoTime();
+        lookup.run();
+        nanos[i] = System.nanoTime() - start;
+      }
+    });
+    Arrays.sort(nanos);
+    return String.format("p50 %.1fus, p99 %.1fus, max %.1fus",
+        nanos[SAMPLES / 2] / 1000.0, nanos[SAMPLES * 99 / 100] / 1000.0,
+        nanos[SAMPLES - 1] / 1000.0);
+  }
+
+  private static long random(long bound) {
+    return ThreadLocalRandom.current().nextLong(bound);
+  }
+
+  private static String accountNumber(long i) {
+    return String.valueOf(2_000_000_000L + i);
+  }
+}
@@ -0,0 +1,54 @@
+package com.zerobase.account.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SequenceBlockAllocatorTest {
+
+  @Test
+  void allocateWithinBlock() {
+    //given
+    AtomicLong sequence = new AtomicLong(1);
+    SequenceBlockAllocator allocator =
+        new SequenceBlockAllocator(() -> sequence.getAndAdd(50), 50);
+    //when
+    //then
+    assertEquals(1L, allocator.next());
+    assertEquals(2L, allocator.next());
+    for (int i = 3; i <= 50; i++) {
+      allocator.next();
+    }
+    assertEquals(51L, allocator.next());
+    assertEquals(101L, sequence.get());
+  }
+
+  @Test
+  void noDuplicateUnderContention() throws InterruptedException {
+    //given
+    AtomicLong sequence = new AtomicLong(1);
+    SequenceBlockAllocator allocator =
+        new SequenceBlockAllocator(() -> sequence.getAndAdd(10), 10);
+    Set<Long> values = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    //when
+    for (int t = 0; t < 8; t++) {
+      executor.submit(() -> {
+        for (int i = 0; i < 1000; i++) {
+          values.add(allocator.next());
+        }
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    //then
+    assertEquals(8000, values.size());
+  }
+}
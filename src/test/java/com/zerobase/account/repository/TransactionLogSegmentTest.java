@@ -0,0 +1,96 @@
+package com.zerobase.account.repository;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.zerobase.account.repository.TransactionLogSegment.*;
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionLogSegmentTest {
+  @TempDir
+  Path dir;
+
+  private Transaction transaction(long transactionKey) {
+    return Transaction.builder()
+        .account(Account.builder().accountId(1L).build())
+        .transactionType(USE)
+        .transactionResultType(S)
+        .amount(1000L)
+        .balanceSnapshot(9000L)
+        .transactionKey(transactionKey)
+        .transactionAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123456789))
+        .build();
+  }
+
+  @Test
+  void appendAndRead() throws IOException {
+    //given
+    Path path = dir.resolve("segment.log");
+    try (TransactionLogSegment segment = TransactionLogSegment.open(path, 0L, 4096)) {
+      //when
+      segment.append(transaction(1L), COMMITTED);
+      segment.append(transaction(2L), ABORTED);
+      List<Entry> entries = segment.readResolved(0, 10);
+
+      //then
+      assertEquals(2, entries.size());
+      assertTrue(entries.get(0).isCommitted());
+      assertFalse(entries.get(1).isCommitted());
+      Transaction read = entries.get(0).transaction();
+      assertEquals(1L, read.getAccount().getAccountId());
+      assertEquals(9000L, read.getBalanceSnapshot());
+      assertEquals(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123456789), read.getTransactionAt());
+    }
+  }
+
+  @Test
+  void readStopsAtPrepared() throws IOException {
+    //given
+    Path path = dir.resolve("segment.log");
+    try (TransactionLogSegment segment = TransactionLogSegment.open(path, 0L, 4096)) {
+      segment.append(transaction(1L), COMMITTED);
+      int prepared = segment.append(transaction(2L), PREPARED);
+      segment.append(transaction(3L), COMMITTED);
+
+      //when
+      List<Entry> before = segment.readResolved(0, 10);
+      segment.setState(prepared, COMMITTED);
+      List<Entry> after = segment.readResolved(0, 10);
+
+      //then
+      assertEquals(1, before.size());
+      assertEquals(3, after.size());
+    }
+  }
+
+  @Test
+  void reopenRecoversPosition() throws IOException {
+    //given
+    Path path = dir.resolve("segment.log");
+    try (TransactionLogSegment segment = TransactionLogSegment.open(path, 0L, 4096)) {
+      segment.append(transaction(1L), COMMITTED);
+      segment.append(transaction(2L), PREPARED);
+      segment.force();
+    }
+
+    //when
+    try (TransactionLogSegment segment = TransactionLogSegment.open(path, 0L, 4096)) {
+      List<Entry> prepared = segment.readPrepared();
+
+      //then
+      assertEquals(2 * RECORD_SIZE, segment.getWritePosition());
+      assertEquals(1, prepared.size());
+      assertEquals(2L, prepared.get(0).transaction().getTransactionKey());
+      assertEquals(1, segment.readResolved(0, 10).size());
+    }
+  }
+}
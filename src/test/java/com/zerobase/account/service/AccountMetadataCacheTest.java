@@ -0,0 +1,90 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.AccountMetadata;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountMetadataCacheTest {
+  @Mock
+  private AccountRepository accountRepository;
+
+  private AccountMetadataCache accountMetadataCache;
+
+  @BeforeEach
+  void setUp() {
+    accountMetadataCache = new AccountMetadataCache(accountRepository,
+        new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+  }
+
+  private Account account() {
+    return Account.builder()
+        .accountId(1L)
+        .accountUser(AccountUser.builder().accountUserId(12L).name("Pobi").build())
+        .accountStatus(AccountStatus.IN_USE)
+        .balance(10000L)
+        .accountNumber("1000000012").build();
+  }
+
+  @Test
+  void loadOnceAndCache() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    //when
+    accountMetadataCache.get("1000000012");
+    AccountMetadata metadata = accountMetadataCache.get("1000000012");
+    //then
+    verify(accountRepository, times(1)).findByAccountNumber("1000000012");
+    assertEquals(1L, metadata.accountId());
+    assertEquals(12L, metadata.ownerId());
+    assertEquals(AccountStatus.IN_USE, metadata.accountStatus());
+  }
+
+  @Test
+  void reloadAfterInvalidate() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    //when
+    accountMetadataCache.get("1000000012");
+    accountMetadataCache.invalidate("1000000012");
+    accountMetadataCache.get("1000000012");
+    //then
+    verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+  }
+
+  @Test
+  void accountNotFoundIsNotCached() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.empty());
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> accountMetadataCache.get("1000000012"));
+    assertThrows(AccountException.class,
+        () -> accountMetadataCache.get("1000000012"));
+    //then
+    assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    verify(accountRepository, times(2)).findByAccountNumber("1000000012");
+  }
+}
@@ -0,0 +1,49 @@
+package com.zerobase.account.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+  @Mock
+  private RedissonClient redissonClient;
+
+  @InjectMocks
+  private AccountNumberAllocator accountNumberAllocator;
+
+  @Test
+  void allocateFromSequenceBlock() {
+    //given
+    given(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+        .willReturn(0L, 100L);
+    accountNumberAllocator.init();
+    //when
+    String first = accountNumberAllocator.next();
+    String second = accountNumberAllocator.next();
+    //then
+    assertEquals("1000000008", first);
+    assertEquals("1000000016", second);
+    verify(jdbcTemplate, times(1)).queryForObject(anyString(), eq(Long.class));
+  }
+
+  @Test
+  void checkDigit() {
+    assertEquals(8, AccountNumberAllocator.checkDigit(100000000L));
+    assertEquals(6, AccountNumberAllocator.checkDigit(100000001L));
+    assertEquals(7, AccountNumberAllocator.checkDigit(123456789L));
+  }
+}
@@ -3,6 +3,7 @@ package com.zerobase.account.service;
 import com.zerobase.account.domain.Account;
 import com.zerobase.account.domain.AccountUser;
 import com.zerobase.account.dto.AccountDto;
+import com.zerobase.account.dto.AccountInfo;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.repository.AccountRepository;
 import com.zerobase.account.repository.AccountUserRepository;
@@ -42,6 +43,15 @@ class AccountServiceTest {
 
   @Mock
   private AccountUserRepository accountUserRepository;
+  @Mock
+  private BalanceLedger balanceLedger;
+  @Mock
+  private AccountNumberAllocator accountNumberAllocator;
+  @Mock
+  private AccountMetadataCache accountMetadataCache;
+  @Mock
+  private ReconciliationService reconciliationService;
+
   @InjectMocks
   private AccountService accountService;
 
@@ -54,10 +64,8 @@ class AccountServiceTest {
 
     given(accountUserRepository.findById(anyLong()))
         .willReturn(Optional.of(pobi));
-    given(accountRepository.findFirstByOrderByAccountIdDesc())
-        .willReturn(Optional.of(Account.builder()
-            .accountUser(pobi)
-            .accountNumber("1234").build()));
+    given(accountNumberAllocator.next())
+        .willReturn("1000000008");
     given(accountRepository.save(any()))
         .willReturn(Account.builder()
             .accountUser(pobi)
@@ -68,6 +76,8 @@ class AccountServiceTest {
     AccountDto accountDto = accountService.createdAccount(1L, 200L);
     //then
     verify(accountRepository, times(1)).save(captor.capture());
+    assertEquals("1000000008", captor.getValue().getAccountNumber());
+    verify(reconciliationService, times(1)).open(any(), eq(200L));
     assertEquals(12L, accountDto.getUserId());
     assertEquals("1234", accountDto.getAccountNumber());
   }
@@ -126,6 +136,7 @@ class AccountServiceTest {
     AccountDto accountDto = accountService.deleteAccount(1L, "12345");
     //then
     verify(accountRepository, times(1)).save(captor.capture());
+    verify(accountMetadataCache, times(1)).invalidate("12345");
     assertEquals(12L, accountDto.getUserId());
     assertEquals("12345", accountDto.getAccountNumber());
   }
@@ -238,28 +249,17 @@ class AccountServiceTest {
   @DisplayName("계좌 여러개 성공")
   void getAccountByUserIdSuccess() {
     //given
-    AccountUser pobi = AccountUser.builder()
-        .accountUserId(12L).name("Pobi").build();
-    //given
-    List<Account> accountList = Arrays.asList(
-        Account.builder()
-            .accountId(1L)
-            .accountUser(pobi)
-            .accountNumber("123456")
-            .balance(1000L).build(),
-        Account.builder()
-            .accountId(2L)
-            .accountUser(pobi)
-            .accountNumber("1234566")
-            .balance(2000L).build());
+    List<AccountInfo> accountList = Arrays.asList(
+        new AccountInfo("123456", 1000L),
+        new AccountInfo("1234566", 2000L));
 
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountUser(any()))
+    given(accountUserRepository.existsById(anyLong()))
+        .willReturn(true);
+    given(accountRepository.findInfoByUserId(anyLong()))
         .willReturn(accountList);
 
     //when
-    List<AccountDto> accountDto = accountService.getAccountByUserId(1L);
+    List<AccountInfo> accountDto = accountService.getAccountByUserId(1L);
     //then
     assertEquals(2, accountDto.size());
     assertEquals("123456", accountDto.get(0).getAccountNumber());
@@ -271,8 +271,8 @@ class AccountServiceTest {
   @DisplayName("계좌 여러개 실패")
   void getAccountByUserIdFail() {
     //given
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.empty());
+    given(accountUserRepository.existsById(anyLong()))
+        .willReturn(false);
 
     //when
     AccountException exception = assertThrows(AccountException.class,
@@ -282,4 +282,17 @@ class AccountServiceTest {
     assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
   }
 
-}
\ No newline at end of file
+  @Test
+  void getAccount_AccountNotFound() {
+    //given
+    given(accountRepository.findDetailByAccountId(anyLong()))
+        .willReturn(Optional.empty());
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> accountService.getAccount(1L));
+
+    //then
+    assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+  }
+}
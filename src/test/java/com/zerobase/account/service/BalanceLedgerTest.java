@@ -0,0 +1,291 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.CANCEL;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerTest {
+  @Mock
+  private AccountRepository accountRepository;
+  @Mock
+  private TransactionRepository transactionRepository;
+  @Mock
+  private LedgerJournal ledgerJournal;
+  @Mock
+  private TransactionIdGenerator transactionIdGenerator;
+  @Mock
+  private ReconciliationService reconciliationService;
+
+  @InjectMocks
+  private BalanceLedger balanceLedger;
+
+  private Account account() {
+    return Account.builder()
+        .accountId(1L)
+        .accountUser(AccountUser.builder().accountUserId(1L).name("Pobi").build())
+        .accountStatus(AccountStatus.IN_USE)
+        .balance(10000L)
+        .accountNumber("1000000012").build();
+  }
+
+  @Test
+  void successUseBalance() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.append(any())).willReturn(true);
+    ArgumentCaptor<LedgerEntry> captor = ArgumentCaptor.forClass(LedgerEntry.class);
+
+    //when
+    balanceLedger.useBalance(1L, "1000000012", 200L);
+    TransactionDto transactionDto = balanceLedger.useBalance(1L, "1000000012", 300L);
+
+    //then
+    verify(accountRepository, times(1)).findByAccountNumber(anyString());
+    verify(ledgerJournal, times(2)).append(captor.capture());
+    assertEquals(-300L, captor.getValue().getBalanceDelta());
+    assertEquals(USE, transactionDto.getTransactionType());
+    assertEquals(S, transactionDto.getTransactionResultType());
+    assertEquals(9500L, transactionDto.getBalanceSnapshot());
+    assertEquals(9500L, balanceLedger.getBalance("1000000012"));
+  }
+
+  @Test
+  void concurrentUseIsJournaledInBalanceOrder() throws InterruptedException {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    AtomicLong keys = new AtomicLong();
+    given(transactionIdGenerator.next()).willAnswer(invocation -> keys.incrementAndGet());
+    List<LedgerEntry> journaled = Collections.synchronizedList(new ArrayList<>());
+    given(ledgerJournal.append(any())).willAnswer(invocation -> {
+      journaled.add(invocation.getArgument(0));
+      return true;
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    //when
+    for (int i = 0; i < 1000; i++) {
+      executor.submit(() -> balanceLedger.useBalance(1L, "1000000012", 1L));
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    //then
+    // 저널(DB 반영) 순서가 잔액이 바뀐 순서이고, 거래 시각과 키도 그 순서를 따른다.
+    assertEquals(1000, journaled.size());
+    for (int i = 0; i < journaled.size(); i++) {
+      LedgerEntry entry = journaled.get(i);
+      assertEquals(10000L - (i + 1), entry.getBalanceSnapshot());
+      if (i > 0) {
+        LedgerEntry previous = journaled.get(i - 1);
+        assertFalse(entry.getTransactionAt().isBefore(previous.getTransactionAt()));
+        assertTrue(entry.getTransactionKey() > previous.getTransactionKey());
+      }
+    }
+  }
+
+  @Test
+  void eventModeShardReplaysEvents() {
+    //given
+    ReflectionTestUtils.setField(balanceLedger, "balanceMode", BalanceMode.EVENT);
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(reconciliationService.replayBalance(1L)).willReturn(7000L);
+
+    //when
+    long balance = balanceLedger.getBalance("1000000012");
+
+    //then
+    // 계좌 잔액(projection, 10000)이 아니라 이벤트로 다시 계산한 잔액을 쓴다.
+    assertEquals(7000L, balance);
+  }
+
+  @Test
+  void useBalance_userUnMatch() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.useBalance(2L, "1000000012", 200L));
+
+    //then
+    assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+  }
+
+  @Test
+  void useBalance_exceedBalance() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.useBalance(1L, "1000000012", 10001L));
+
+    //then
+    assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    verify(ledgerJournal, times(0)).append(any());
+  }
+
+  @Test
+  void useBalance_journalFull() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.append(any())).willReturn(false);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.useBalance(1L, "1000000012", 200L));
+
+    //then
+    assertEquals(ErrorCode.LEDGER_JOURNAL_FULL, exception.getErrorCode());
+    assertEquals(10000L, balanceLedger.getBalance("1000000012"));
+  }
+
+  @Test
+  void successCancelPendingBalance() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.findPending(anyLong()))
+        .willReturn(Optional.of(LedgerEntry.builder()
+            .accountId(1L)
+            .accountNumber("1000000012")
+            .transactionType(USE)
+            .transactionResultType(S)
+            .amount(200L)
+            .balanceSnapshot(9800L)
+            .transactionKey(1L)
+            .transactionAt(LocalDateTime.now())
+            .build()));
+    given(ledgerJournal.claimCancel(1L)).willReturn(true);
+    given(ledgerJournal.append(any())).willReturn(true);
+    ArgumentCaptor<LedgerEntry> captor = ArgumentCaptor.forClass(LedgerEntry.class);
+
+    //when
+    TransactionDto transactionDto =
+        balanceLedger.cancelBalance(1L, "1000000012", 200L);
+
+    //then
+    verify(ledgerJournal).append(captor.capture());
+    assertEquals(1L, captor.getValue().getCanceledTransactionKey());
+    assertEquals(CANCEL, transactionDto.getTransactionType());
+    assertEquals(10200L, transactionDto.getBalanceSnapshot());
+  }
+
+  private LedgerEntry pendingUse() {
+    return LedgerEntry.builder()
+        .accountId(1L)
+        .accountNumber("1000000012")
+        .transactionType(USE)
+        .transactionResultType(S)
+        .amount(200L)
+        .balanceSnapshot(9800L)
+        .transactionKey(1L)
+        .transactionAt(LocalDateTime.now())
+        .build();
+  }
+
+  @Test
+  void cancelBalance_alreadyCanceledPending() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.findPending(anyLong())).willReturn(Optional.of(pendingUse()));
+    given(ledgerJournal.claimCancel(1L)).willReturn(false);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.cancelBalance(1L, "1000000012", 200L));
+
+    //then
+    assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+    assertEquals(10000L, balanceLedger.getBalance("1000000012"));
+    verify(ledgerJournal, times(0)).append(any());
+  }
+
+  @Test
+  void cancelBalance_alreadyCanceledInDb() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.findPending(anyLong())).willReturn(Optional.of(pendingUse()));
+    given(ledgerJournal.claimCancel(1L)).willReturn(true);
+    given(transactionRepository.existsByCanceledTransaction_TransactionKey(1L))
+        .willReturn(true);
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.cancelBalance(1L, "1000000012", 200L));
+
+    //then
+    assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+    verify(ledgerJournal).releaseCancel(1L);
+    assertEquals(10000L, balanceLedger.getBalance("1000000012"));
+  }
+
+  @Test
+  void cancelBalance_cancelMustFully() {
+    //given
+    given(accountRepository.findByAccountNumber(anyString()))
+        .willReturn(Optional.of(account()));
+    given(ledgerJournal.findPending(anyLong()))
+        .willReturn(Optional.of(LedgerEntry.builder()
+            .accountId(1L)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .amount(1000L)
+            .transactionKey(1L)
+            .transactionAt(LocalDateTime.now())
+            .build()));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> balanceLedger.cancelBalance(1L, "1000000012", 200L));
+
+    //then
+    assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+  }
+}
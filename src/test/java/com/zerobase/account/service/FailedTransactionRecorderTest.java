@@ -0,0 +1,104 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.AccountMetadata;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.zerobase.account.type.TransactionResultType.F;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+  @Mock
+  private AccountMetadataCache accountMetadataCache;
+  @Mock
+  private AccountRepository accountRepository;
+  @Mock
+  private TransactionBatchRepository transactionBatchRepository;
+  @Mock
+  private TransactionIdGenerator transactionIdGenerator;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private FailedTransactionRecorder failedTransactionRecorder;
+
+  @BeforeEach
+  void setUp() {
+    failedTransactionRecorder = new FailedTransactionRecorder(accountMetadataCache,
+        accountRepository, transactionBatchRepository, transactionIdGenerator, meterRegistry);
+  }
+
+  @Test
+  void recordInBackground() throws Exception {
+    //given
+    given(transactionIdGenerator.next()).willReturn(1L, 2L);
+    given(accountMetadataCache.get("1000000012"))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountMetadataCache.get("9999999999"))
+        .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+    given(accountRepository.findAllById(anyIterable()))
+        .willReturn(List.of(Account.builder().accountId(1L).balance(500L).build()));
+    List<Transaction> saved = new ArrayList<>();
+    willAnswer(invocation -> saved.addAll(invocation.getArgument(0)))
+        .given(transactionBatchRepository).insertAll(anyList());
+
+    //when
+    failedTransactionRecorder.start();
+    assertTrue(failedTransactionRecorder.record("1000000012", 1000L));
+    assertTrue(failedTransactionRecorder.record("9999999999", 1000L));
+    failedTransactionRecorder.stop();
+
+    //then
+    assertEquals(1, saved.size());
+    assertEquals(F, saved.get(0).getTransactionResultType());
+    assertEquals(500L, saved.get(0).getBalanceSnapshot());
+    assertEquals(1L, saved.get(0).getAccount().getAccountId());
+    assertEquals(1.0, meterRegistry.get("account.failed-transactions.recorded")
+        .counter().count());
+    assertEquals(1.0, meterRegistry.get("account.failed-transactions.dropped")
+        .tag("reason", "unresolved").counter().count());
+  }
+
+  @Test
+  void dropWhenBatchFails() throws Exception {
+    //given
+    given(transactionIdGenerator.next()).willReturn(1L);
+    given(accountMetadataCache.get("1000000012"))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.findAllById(anyIterable()))
+        .willReturn(List.of(Account.builder().accountId(1L).balance(500L).build()));
+    willThrow(new SQLException("boom"))
+        .given(transactionBatchRepository).insertAll(anyList());
+
+    //when
+    failedTransactionRecorder.start();
+    failedTransactionRecorder.record("1000000012", 1000L);
+    failedTransactionRecorder.stop();
+
+    //then
+    verify(transactionBatchRepository, atLeastOnce()).insertAll(anyList());
+    assertEquals(1.0, meterRegistry.get("account.failed-transactions.dropped")
+        .tag("reason", "error").counter().count());
+  }
+}
@@ -0,0 +1,76 @@
+package com.zerobase.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountSketchTest {
+
+  @Test
+  void topOrderedByCount() {
+    //given
+    HotAccountSketch sketch = new HotAccountSketch(10);
+    for (int i = 0; i < 5; i++) {
+      sketch.offer("1000000012");
+    }
+    sketch.offer("1000000020");
+    sketch.offer("1000000020");
+    sketch.offer("1000000038");
+    //when
+    List<HotAccountSketch.HotAccount> top = sketch.top(2);
+    //then
+    assertEquals(2, top.size());
+    assertEquals("1000000012", top.get(0).accountNumber());
+    assertEquals(5L, top.get(0).count());
+    assertEquals(0L, top.get(0).error());
+    assertEquals("1000000020", top.get(1).accountNumber());
+  }
+
+  @Test
+  void hotAccountSurvivesEviction() {
+    //given
+    HotAccountSketch sketch = new HotAccountSketch(3);
+    for (int i = 0; i < 100; i++) {
+      sketch.offer("1000000012");
+      sketch.offer("cold-" + i);
+    }
+    //when
+    List<HotAccountSketch.HotAccount> top = sketch.top(1);
+    //then
+    assertEquals("1000000012", top.get(0).accountNumber());
+    assertEquals(100L, top.get(0).count());
+    assertEquals(3, sketch.top(10).size());
+  }
+
+  @Test
+  void evictionKeepsMinimumAsError() {
+    //given
+    HotAccountSketch sketch = new HotAccountSketch(2);
+    sketch.offer("1000000012");
+    sketch.offer("1000000012");
+    sketch.offer("1000000020");
+    //when
+    sketch.offer("1000000038");
+    //then
+    List<HotAccountSketch.HotAccount> top = sketch.top(10);
+    assertEquals(2, top.size());
+    assertEquals(2L, top.get(0).count());
+    assertTrue(top.stream().anyMatch(hot -> hot.accountNumber().equals("1000000038")
+        && hot.count() == 2L && hot.error() == 1L));
+    assertTrue(top.stream().noneMatch(hot -> hot.accountNumber().equals("1000000020")));
+  }
+
+  @Test
+  void invalidCapacityAndLimitAreRejected() {
+    //given
+    HotAccountSketch sketch = new HotAccountSketch(1);
+
+    //when
+    //then
+    assertThrows(IllegalArgumentException.class, () -> new HotAccountSketch(0));
+    assertThrows(IllegalArgumentException.class, () -> sketch.top(-1));
+    assertTrue(sketch.top(0).isEmpty());
+  }
+}
@@ -0,0 +1,212 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+  @Mock
+  private RedissonClient redissonClient;
+
+  @Mock
+  private RBucket<Object> responseBucket;
+  @Mock
+  private RBucket<Object> claimBucket;
+  @Mock
+  private RBucket<Object> fingerprintBucket;
+
+  private IdempotencyStore store() {
+    return new IdempotencyStore(redissonClient, new SimpleMeterRegistry(), true,
+        1000L, Duration.ofMinutes(1), false, 5000L, Duration.ofSeconds(30));
+  }
+
+  private IdempotencyStore redisStore() {
+    // 테스트마다 쓰는 버킷이 다르다.
+    lenient().when(redissonClient.getBucket(eq("idempotency:use:1000000012:key-1"),
+        any(Codec.class))).thenReturn(responseBucket);
+    lenient().when(redissonClient.getBucket(eq("idempotency:use:1000000012:key-1:claim"),
+        any(Codec.class))).thenReturn(claimBucket);
+    lenient().when(redissonClient.getBucket(eq("idempotency:use:1000000012:key-1:fingerprint"),
+        any(Codec.class))).thenReturn(fingerprintBucket);
+    return new IdempotencyStore(redissonClient, new SimpleMeterRegistry(), true,
+        1000L, Duration.ofMinutes(1), true, 5000L, Duration.ofSeconds(30));
+  }
+
+  private UseBalance.Response response(String transactionId) {
+    return UseBalance.Response.builder().transactionId(transactionId).build();
+  }
+
+  @Test
+  void replayReturnsStoredResponse() throws Throwable {
+    //given
+    IdempotencyStore idempotencyStore = store();
+    AtomicInteger calls = new AtomicInteger();
+
+    //when
+    Object first = idempotencyStore.execute("use:1000000012:key-1", "fp-1",
+        UseBalance.Response.class,
+        () -> response("trx-" + calls.incrementAndGet()));
+    Object replay = idempotencyStore.execute("use:1000000012:key-1", "fp-1",
+        UseBalance.Response.class,
+        () -> response("trx-" + calls.incrementAndGet()));
+
+    //then
+    assertEquals(1, calls.get());
+    assertSame(first, replay);
+  }
+
+  @Test
+  void failureIsNotStored() throws Throwable {
+    //given
+    IdempotencyStore idempotencyStore = store();
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> idempotencyStore.execute("use:1000000012:key-1", "fp-1", UseBalance.Response.class,
+            () -> {
+              throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }));
+    Object retried = idempotencyStore.execute("use:1000000012:key-1", "fp-1",
+        UseBalance.Response.class, () -> response("trx-1"));
+
+    //then
+    assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    assertEquals("trx-1", ((UseBalance.Response) retried).getTransactionId());
+  }
+
+  @Test
+  void concurrentDuplicatesRunOnce() throws Exception {
+    //given
+    IdempotencyStore idempotencyStore = store();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch inFlight = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    //when
+    Future<Object> first = executor.submit(() -> {
+      try {
+        return idempotencyStore.execute("use:1000000012:key-1", "fp-1", UseBalance.Response.class,
+            () -> {
+              inFlight.countDown();
+              release.await();
+              return response("trx-" + calls.incrementAndGet());
+            });
+      } catch (Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    inFlight.await();
+    Future<Object> duplicate = executor.submit(() -> {
+      try {
+        return idempotencyStore.execute("use:1000000012:key-1", "fp-1", UseBalance.Response.class,
+            () -> response("trx-" + calls.incrementAndGet()));
+      } catch (Throwable e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    release.countDown();
+
+    //then
+    assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+    assertEquals(1, calls.get());
+    executor.shutdown();
+  }
+
+  @Test
+  void remoteClaimRunsAndStores() throws Throwable {
+    //given
+    IdempotencyStore idempotencyStore = redisStore();
+    given(claimBucket.trySet(any(), anyLong(), any())).willReturn(true);
+
+    //when
+    Object result = idempotencyStore.execute("use:1000000012:key-1", "fp-1",
+        UseBalance.Response.class, () -> response("trx-1"));
+
+    //then
+    assertEquals("trx-1", ((UseBalance.Response) result).getTransactionId());
+    verify(fingerprintBucket).set(eq("fp-1"), anyLong(), any());
+    verify(responseBucket).set(eq(result), anyLong(), any());
+    verify(claimBucket).compareAndSet(any(), isNull());
+  }
+
+  @Test
+  void remoteInFlightWaitsForStoredResponse() throws Throwable {
+    //given
+    IdempotencyStore idempotencyStore = redisStore();
+    UseBalance.Response stored = response("trx-other-node");
+    // 다른 노드가 처리 중 -> 다음 확인 때 응답이 저장되어 있다.
+    given(responseBucket.get()).willReturn(null, stored);
+    given(claimBucket.trySet(any(), anyLong(), any())).willReturn(false);
+    given(fingerprintBucket.get()).willReturn("fp-1");
+    AtomicInteger calls = new AtomicInteger();
+
+    //when
+    Object result = idempotencyStore.execute("use:1000000012:key-1", "fp-1",
+        UseBalance.Response.class, () -> response("trx-" + calls.incrementAndGet()));
+
+    //then
+    assertSame(stored, result);
+    assertEquals(0, calls.get());
+    verify(claimBucket, never()).compareAndSet(any(), any());
+  }
+
+  @Test
+  void reusedKeyWithDifferentBodyIsRejected() throws Throwable {
+    //given
+    IdempotencyStore idempotencyStore = store();
+    idempotencyStore.execute("use:1000000012:key-1", "fp-1", UseBalance.Response.class,
+        () -> response("trx-1"));
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> idempotencyStore.execute("use:1000000012:key-1", "fp-2",
+            UseBalance.Response.class, () -> response("trx-2")));
+
+    //then
+    assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+  }
+
+  @Test
+  void remoteStoredResponseWithDifferentBodyIsRejected() {
+    //given
+    IdempotencyStore idempotencyStore = redisStore();
+    given(responseBucket.get()).willReturn(response("trx-other-node"));
+    given(fingerprintBucket.get()).willReturn("fp-1");
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> idempotencyStore.execute("use:1000000012:key-1", "fp-2",
+            UseBalance.Response.class, () -> response("trx-2")));
+
+    //then
+    assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+  }
+}
@@ -0,0 +1,68 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.aop.LatencyPoint;
+import com.zerobase.account.config.LatencyInjectionProperties;
+import com.zerobase.account.config.LatencyInjectionProperties.Step;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LatencyInjectionAspectTest {
+  @Mock
+  private ProceedingJoinPoint proceedingJoinPoint;
+  @Mock
+  private LatencyPoint latencyPoint;
+
+  private final LatencyInjectionProperties properties = new LatencyInjectionProperties();
+  private final LatencyInjectionAspect latencyInjectionAspect =
+      new LatencyInjectionAspect(properties);
+
+  private Step step(double percentile, long delayMs) {
+    Step step = new Step();
+    step.setPercentile(percentile);
+    step.setDelay(Duration.ofMillis(delayMs));
+    return step;
+  }
+
+  @Test
+  void sampleWithinSteps() {
+    //given
+    List<Step> steps = List.of(step(100, 20), step(50, 10));
+    //when
+    //then
+    for (int i = 0; i < 1000; i++) {
+      Duration delay = latencyInjectionAspect.sample(steps);
+      assertTrue(delay.toMillis() == 10 || delay.toMillis() == 20);
+    }
+  }
+
+  @Test
+  void noStepsNoDelay() {
+    assertEquals(Duration.ZERO, latencyInjectionAspect.sample(new ArrayList<>()));
+  }
+
+  @Test
+  void proceedAfterDelay() throws Throwable {
+    //given
+    properties.getEndpoints().put("transaction-use", List.of(step(100, 5)));
+    given(latencyPoint.value()).willReturn("transaction-use");
+    given(proceedingJoinPoint.proceed()).willReturn("result");
+    //when
+    Object result = latencyInjectionAspect.aroundMethod(proceedingJoinPoint, latencyPoint);
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+    assertEquals("result", result);
+  }
+}
@@ -0,0 +1,112 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.BalanceMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerJournalTest {
+  @Mock
+  private AccountRepository accountRepository;
+  @Mock
+  private TransactionRepository transactionRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+  @Mock
+  private TransactionBatchRepository transactionBatchRepository;
+  @Spy
+  private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  @Mock
+  private LockBackend lockBackend;
+
+  @InjectMocks
+  private LedgerJournal ledgerJournal;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    ledgerJournal.stop();
+  }
+
+  private LedgerEntry entry(long transactionKey) {
+    return LedgerEntry.builder()
+        .accountId(1L)
+        .accountNumber("1000000012")
+        .transactionType(USE)
+        .transactionResultType(S)
+        .amount(100L)
+        .balanceSnapshot(1000L)
+        .transactionKey(transactionKey)
+        .transactionAt(LocalDateTime.now())
+        .build();
+  }
+
+  @Test
+  void poisonEntryIsDeadLettered() throws Exception {
+    //given
+    ReflectionTestUtils.setField(ledgerJournal, "balanceMode", BalanceMode.EVENT);
+    ReflectionTestUtils.setField(ledgerJournal, "lockBackend", new LocalStripedLockBackend(16));
+    ReflectionTestUtils.setField(ledgerJournal, "maxAttempts", 1);
+    List<Long> inserted = new CopyOnWriteArrayList<>();
+    willAnswer(invocation -> {
+      List<Transaction> transactions = invocation.getArgument(0);
+      if (transactions.stream().anyMatch(t -> t.getTransactionKey() == 2L)) {
+        throw new SQLIntegrityConstraintViolationException("poison");
+      }
+      transactions.forEach(t -> inserted.add(t.getTransactionKey()));
+      return null;
+    }).given(transactionBatchRepository).insertAll(anyList());
+    ledgerJournal.start();
+
+    //when
+    ledgerJournal.append(entry(1L));
+    ledgerJournal.append(entry(2L));
+    ledgerJournal.append(entry(3L));
+    long deadline = System.currentTimeMillis() + 5000L;
+    while (ledgerJournal.findPending(3L).isPresent() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+
+    //then
+    assertEquals(List.of(1L, 3L), inserted);
+    assertTrue(ledgerJournal.findPending(2L).isEmpty());
+    assertEquals(1.0,
+        meterRegistry.counter("account.ledger.journal.dead-letters").count());
+  }
+
+  @Test
+  void ledgerModeRequiresLocalLock() {
+    //given
+    // Redisson 등 여러 노드용 락
+    ReflectionTestUtils.setField(ledgerJournal, "balanceMode", BalanceMode.LEDGER);
+
+    //when
+    //then
+    assertThrows(IllegalStateException.class, () -> ledgerJournal.start());
+  }
+}
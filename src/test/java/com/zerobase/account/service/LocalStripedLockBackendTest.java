@@ -0,0 +1,44 @@
+package com.zerobase.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStripedLockBackendTest {
+  private final LocalStripedLockBackend lockBackend = new LocalStripedLockBackend(16);
+
+  private boolean tryLockFromOtherThread(String key) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        boolean locked = lockBackend.tryLock(key, 10, 15, TimeUnit.MILLISECONDS);
+        if (locked) {
+          lockBackend.unlock(key);
+        }
+        return locked;
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    }).join();
+  }
+
+  @Test
+  void lockBlocksOtherThread() throws InterruptedException {
+    //given
+    assertTrue(lockBackend.tryLock("ACLK : 1000000012", 1, 15, TimeUnit.SECONDS));
+    //when
+    boolean lockedWhileHeld = tryLockFromOtherThread("ACLK : 1000000012");
+    lockBackend.unlock("ACLK : 1000000012");
+    boolean lockedAfterUnlock = tryLockFromOtherThread("ACLK : 1000000012");
+    //then
+    assertFalse(lockedWhileHeld);
+    assertTrue(lockedAfterUnlock);
+  }
+
+  @Test
+  void unlockWithoutLockIsIgnored() {
+    assertDoesNotThrow(() -> lockBackend.unlock("ACLK : 1000000012"));
+  }
+}
@@ -1,8 +1,11 @@
 package com.zerobase.account.service;
 
+import com.zerobase.account.aop.AccountLock;
+import com.zerobase.account.aop.LockPolicy;
 import com.zerobase.account.dto.UseBalance;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.type.ErrorCode;
+import com.zerobase.account.type.LockWaitPolicy;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,6 +31,12 @@ class LockAopAspectTest {
   @Mock
   private ProceedingJoinPoint proceedingJoinPoint;
 
+  @Mock
+  private AccountLock accountLock;
+
+  @Mock
+  private LockMetrics lockMetrics;
+
   @InjectMocks
   private LockAopAspect lockAopAspect;
 
@@ -42,10 +51,10 @@ class LockAopAspectTest {
         new UseBalance.Request(1234L, "1234", 19000L);
 
     //when
-    lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+    lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
     //then
     verify(lockService, times(1)).getLock(
-        lockArgCaptor.capture()
+        lockArgCaptor.capture(), any()
     );
     verify(lockService, times(1)).unLock(
         unlockArgCaptor.capture()
@@ -67,10 +76,10 @@ class LockAopAspectTest {
 
     //when
     assertThrows(AccountException.class, () ->
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request));
     //then
     verify(lockService, times(1)).getLock(
-        lockArgCaptor.capture()
+        lockArgCaptor.capture(), any()
     );
     verify(lockService, times(1)).unLock(
         unlockArgCaptor.capture()
@@ -79,5 +88,24 @@ class LockAopAspectTest {
     assertEquals("34534",unlockArgCaptor.getValue());
   }
 
+  @Test
+  void lockWithAnnotationPolicy() throws Throwable {
+    //given
+    ArgumentCaptor<LockPolicy> policyCaptor =
+        ArgumentCaptor.forClass(LockPolicy.class);
+    UseBalance.Request request =
+        new UseBalance.Request(1234L, "1234", 19000L);
+    given(accountLock.tryLockTime()).willReturn(200L);
+    given(accountLock.leaseTime()).willReturn(3000L);
+    given(accountLock.waitPolicy()).willReturn(LockWaitPolicy.FAIL_FAST);
+
+    //when
+    lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock, request);
 
-}
\ No newline at end of file
+    //then
+    verify(lockService, times(1)).getLock(anyString(), policyCaptor.capture());
+    assertEquals(0L, policyCaptor.getValue().getEffectiveWaitTime());
+    assertEquals(3000L, policyCaptor.getValue().getLeaseTime());
+    assertEquals(LockWaitPolicy.FAIL_FAST, policyCaptor.getValue().getWaitPolicy());
+  }
+}
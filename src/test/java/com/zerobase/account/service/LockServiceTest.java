@@ -1,25 +1,29 @@
 package com.zerobase.account.service;
 
+import com.zerobase.account.aop.LockPolicy;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.type.ErrorCode;
+import com.zerobase.account.type.LockWaitPolicy;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
   @Mock
-  private RedissonClient redissonClient;
+  private LockBackend lockBackend;
+
   @Mock
-  private RLock rLock;
+  private LockMetrics lockMetrics;
 
   @InjectMocks
   private LockService lockService;
@@ -27,9 +31,7 @@ class LockServiceTest {
   @Test
   void successGetLock() throws InterruptedException {
     //given
-    given(redissonClient.getLock(anyString()))
-        .willReturn(rLock);
-    given(rLock.tryLock(anyLong(), anyLong(), any()))
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
         .willReturn(true);
     //when
     //then
@@ -39,9 +41,7 @@ class LockServiceTest {
   @Test
   void failGetLock() throws InterruptedException {
     //given
-    given(redissonClient.getLock(anyString()))
-        .willReturn(rLock);
-    given(rLock.tryLock(anyLong(), anyLong(), any()))
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
         .willReturn(false);
     //when
     //then
@@ -50,4 +50,19 @@ class LockServiceTest {
 
     assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
   }
-}
\ No newline at end of file
+
+  @Test
+  void failFastDoesNotWait() throws InterruptedException {
+    //given
+    given(lockBackend.tryLock(anyString(), anyLong(), anyLong(), any()))
+        .willReturn(false);
+    LockPolicy policy = new LockPolicy(500L, 3000L, LockWaitPolicy.FAIL_FAST);
+    //when
+    AccountException exception = assertThrows(AccountException.class
+        , () -> lockService.getLock("1234", policy));
+    //then
+    verify(lockBackend).tryLock(anyString(), eq(0L), eq(3000L),
+        eq(TimeUnit.MILLISECONDS));
+    assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+  }
+}
@@ -0,0 +1,89 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+  @Mock
+  private ProceedingJoinPoint proceedingJoinPoint;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final OptimisticRetryAspect optimisticRetryAspect =
+      new OptimisticRetryAspect(meterRegistry);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(optimisticRetryAspect, "balanceMode", BalanceMode.OPTIMISTIC);
+    ReflectionTestUtils.setField(optimisticRetryAspect, "maxAttempts", 3);
+    ReflectionTestUtils.setField(optimisticRetryAspect, "backoffBaseMs", 1L);
+  }
+
+  private ObjectOptimisticLockingFailureException conflict() {
+    return new ObjectOptimisticLockingFailureException("Account", 1L);
+  }
+
+  @Test
+  void retryUntilSuccess() throws Throwable {
+    //given
+    given(proceedingJoinPoint.proceed())
+        .willThrow(conflict())
+        .willReturn("result");
+    //when
+    Object result = optimisticRetryAspect.aroundMethod(proceedingJoinPoint);
+    //then
+    assertEquals("result", result);
+    verify(proceedingJoinPoint, times(2)).proceed();
+    assertEquals(1.0, meterRegistry.get("account.optimistic.retries").summary().totalAmount());
+  }
+
+  @Test
+  void retryExhausted() throws Throwable {
+    //given
+    given(proceedingJoinPoint.proceed()).willThrow(conflict());
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+    //then
+    assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    verify(proceedingJoinPoint, times(3)).proceed();
+    assertEquals(1.0, meterRegistry.get("account.optimistic.exhausted").counter().count());
+  }
+
+  @Test
+  void noRetryInOtherModes() throws Throwable {
+    //given
+    ReflectionTestUtils.setField(optimisticRetryAspect, "balanceMode", BalanceMode.LOCK);
+    given(proceedingJoinPoint.proceed()).willThrow(conflict());
+    //when
+    assertThrows(ObjectOptimisticLockingFailureException.class,
+        () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+    //then
+    verify(proceedingJoinPoint, times(1)).proceed();
+  }
+
+  @Test
+  void backoffWithinCeiling() {
+    ReflectionTestUtils.setField(optimisticRetryAspect, "backoffBaseMs", 2L);
+    ReflectionTestUtils.setField(optimisticRetryAspect, "backoffMaxMs", 10L);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(optimisticRetryAspect.backoff(1) <= 2L);
+      assertTrue(optimisticRetryAspect.backoff(10) <= 10L);
+    }
+  }
+}
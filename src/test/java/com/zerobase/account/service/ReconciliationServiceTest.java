@@ -0,0 +1,298 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.AccountCheckpoint;
+import com.zerobase.account.dto.BalanceChange;
+import com.zerobase.account.dto.ReconciliationResult;
+import com.zerobase.account.repository.AccountCheckpointRepository;
+import com.zerobase.account.repository.AccountRepository;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.BalanceMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.zerobase.account.type.TransactionType.CANCEL;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ReconciliationServiceTest {
+  @Mock
+  private AccountRepository accountRepository;
+  @Mock
+  private AccountCheckpointRepository accountCheckpointRepository;
+  @Mock
+  private TransactionRepository transactionRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private ReconciliationService reconciliationService;
+
+  @BeforeEach
+  void setUp() {
+    reconciliationService = new ReconciliationService(accountRepository,
+        accountCheckpointRepository, transactionRepository, transactionTemplate, meterRegistry);
+    lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+        invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+  }
+
+  private BalanceChange change(long id, LocalDateTime at, long amount, long snapshot) {
+    return new BalanceChange(id, USE, amount, snapshot, at);
+  }
+
+  private AccountCheckpoint opening(long balance) {
+    return AccountCheckpoint.builder()
+        .accountId(1L)
+        .balance(balance)
+        .lastTransactionAt(LocalDateTime.of(1970, 1, 1, 0, 0))
+        .lastTransactionId(0L)
+        .build();
+  }
+
+  @Test
+  void reconcileFromOpeningCheckpoint() {
+    //given
+    LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
+    given(accountCheckpointRepository.findById(anyLong()))
+        .willReturn(Optional.of(opening(10000L)));
+    given(transactionRepository.streamBalanceChangesAfter(eq(1L), any(), eq(0L)))
+        .willReturn(Stream.of(
+            change(10L, cutoff.minusMinutes(2), 1000L, 9000L),
+            change(11L, cutoff.minusMinutes(1), 500L, 8500L),
+            new BalanceChange(12L, CANCEL, 500L, 9000L, cutoff.plusMinutes(1))));
+    given(accountRepository.findBalanceByAccountId(1L)).willReturn(Optional.of(9000L));
+    ArgumentCaptor<AccountCheckpoint> captor = ArgumentCaptor.forClass(AccountCheckpoint.class);
+
+    //when
+    ReconciliationResult result = reconciliationService.reconcile(1L, cutoff);
+
+    //then
+    assertTrue(result.isMatched());
+    assertEquals(9000L, result.expectedBalance());
+    assertEquals(3, result.replayed());
+    verify(accountCheckpointRepository, times(1)).save(captor.capture());
+    // cutoff 이후 거래(12)는 체크포인트에 넣지 않는다.
+    assertEquals(8500L, captor.getValue().getBalance());
+    assertEquals(11L, captor.getValue().getLastTransactionId());
+  }
+
+  @Test
+  void replayStartsFromOpeningBalance() {
+    //given
+    // 첫 거래의 balanceSnapshot 이 틀려도 개설 잔액에서 다시 계산한다.
+    LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
+    given(accountCheckpointRepository.findById(anyLong()))
+        .willReturn(Optional.of(opening(1000L)));
+    given(transactionRepository.streamBalanceChangesAfter(eq(1L), any(), eq(0L)))
+        .willReturn(Stream.of(
+            change(10L, cutoff.minusMinutes(2), 100L, 800L),
+            change(11L, cutoff.minusMinutes(1), 100L, 900L)));
+    given(accountRepository.findBalanceByAccountId(1L)).willReturn(Optional.of(800L));
+
+    //when
+    ReconciliationResult result = reconciliationService.reconcile(1L, cutoff);
+
+    //then
+    assertFalse(result.isMatched());
+    assertEquals(800L, result.expectedBalance());
+    assertEquals(2, result.snapshotMismatches());
+    verify(accountCheckpointRepository, times(0)).save(any());
+  }
+
+  @Test
+  void replayWithoutCheckpoint() {
+    //given
+    given(accountCheckpointRepository.findById(anyLong())).willReturn(Optional.empty());
+
+    //when
+    Long balance = reconciliationService.replayBalance(1L);
+
+    //then
+    assertNull(balance);
+    verify(transactionRepository, times(0)).streamBalanceChangesAfter(anyLong(), any(), anyLong());
+  }
+
+  @Test
+  void openSavesOpeningCheckpoint() {
+    //given
+    ArgumentCaptor<AccountCheckpoint> captor = ArgumentCaptor.forClass(AccountCheckpoint.class);
+
+    //when
+    reconciliationService.open(1L, 5000L);
+
+    //then
+    verify(accountCheckpointRepository, times(1)).save(captor.capture());
+    assertEquals(5000L, captor.getValue().getBalance());
+    assertEquals(0L, captor.getValue().getLastTransactionId());
+  }
+
+  @Test
+  void reconcileFromCheckpoint_mismatch() {
+    //given
+    LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
+    AccountCheckpoint checkpoint = AccountCheckpoint.builder()
+        .accountId(1L)
+        .balance(10000L)
+        .lastTransactionAt(cutoff.minusDays(1))
+        .lastTransactionId(5L)
+        .build();
+    given(accountCheckpointRepository.findById(anyLong())).willReturn(Optional.of(checkpoint));
+    given(transactionRepository.streamBalanceChangesAfter(1L, cutoff.minusDays(1), 5L))
+        .willReturn(Stream.of(
+            change(10L, cutoff.minusMinutes(2), 1000L, 9000L),
+            change(11L, cutoff.minusMinutes(1), 500L, 8000L)));
+    given(accountRepository.findBalanceByAccountId(1L)).willReturn(Optional.of(8000L));
+
+    //when
+    ReconciliationResult result = reconciliationService.reconcile(1L, cutoff);
+
+    //then
+    assertFalse(result.isMatched());
+    assertEquals(8500L, result.expectedBalance());
+    assertEquals(1, result.snapshotMismatches());
+    verify(accountCheckpointRepository, times(0)).save(any());
+    assertEquals(10000L, checkpoint.getBalance());
+  }
+
+  @Test
+  void reconcileAll() {
+    //given
+    given(accountRepository.findAccountIdsAfter(eq(0L), any())).willReturn(List.of(1L, 2L));
+    given(accountRepository.findAccountIdsAfter(eq(2L), any())).willReturn(List.of());
+    given(accountCheckpointRepository.findById(anyLong()))
+        .willAnswer(invocation -> Optional.of(opening(0L)));
+    given(transactionRepository.streamBalanceChangesAfter(anyLong(), any(), anyLong()))
+        .willAnswer(invocation -> Stream.empty());
+    given(accountRepository.findBalanceByAccountId(anyLong())).willReturn(Optional.of(0L));
+
+    //when
+    int mismatched = reconciliationService.reconcileAll();
+
+    //then
+    assertEquals(0, mismatched);
+    assertEquals(2.0, meterRegistry.counter("account.reconciliation.accounts").count());
+    verify(accountCheckpointRepository, times(0)).save(any());
+  }
+
+  @Test
+  void reconcileAllReportsUnverified() {
+    //given
+    // 체크포인트가 없는 계좌는 맞다고 세지 않고 미검증으로 센다.
+    given(accountRepository.findAccountIdsAfter(eq(0L), any())).willReturn(List.of(1L, 2L));
+    given(accountRepository.findAccountIdsAfter(eq(2L), any())).willReturn(List.of());
+    given(accountCheckpointRepository.findById(1L)).willReturn(Optional.of(opening(0L)));
+    given(accountCheckpointRepository.findById(2L)).willReturn(Optional.empty());
+    given(transactionRepository.streamBalanceChangesAfter(anyLong(), any(), anyLong()))
+        .willAnswer(invocation -> Stream.empty());
+    given(accountRepository.findBalanceByAccountId(anyLong())).willReturn(Optional.of(0L));
+
+    //when
+    int mismatched = reconciliationService.reconcileAll();
+
+    //then
+    assertEquals(0, mismatched);
+    assertEquals(1.0, meterRegistry.counter("account.reconciliation.unverified").count());
+    assertEquals(0.0, meterRegistry.counter("account.reconciliation.mismatches").count());
+  }
+
+  @Test
+  void unverifiedIsNotMatched() {
+    //given
+    given(accountCheckpointRepository.findById(anyLong())).willReturn(Optional.empty());
+    given(accountRepository.findBalanceByAccountId(1L)).willReturn(Optional.of(1000L));
+
+    //when
+    ReconciliationResult result = reconciliationService.reconcile(1L, LocalDateTime.now());
+
+    //then
+    assertFalse(result.verified());
+    assertFalse(result.isMatched());
+  }
+
+  @Test
+  void backfillOpeningCheckpoints() {
+    //given
+    given(accountRepository.findAccountIdsWithoutCheckpointAfter(eq(0L), any()))
+        .willReturn(List.of(1L));
+    given(accountRepository.findAccountIdsWithoutCheckpointAfter(eq(1L), any()))
+        .willReturn(List.of());
+    given(accountRepository.findForUpdate(1L)).willReturn(Optional.of(Account.builder()
+        .accountId(1L)
+        .balance(8500L)
+        .build()));
+    given(accountCheckpointRepository.existsById(1L)).willReturn(false);
+    // 사용 2000, 취소 500
+    given(transactionRepository.sumBalanceChanges(1L)).willReturn(-1500L);
+    ArgumentCaptor<AccountCheckpoint> captor = ArgumentCaptor.forClass(AccountCheckpoint.class);
+
+    //when
+    int created = reconciliationService.backfillOpeningCheckpoints();
+
+    //then
+    assertEquals(1, created);
+    verify(accountCheckpointRepository, times(1)).save(captor.capture());
+    assertEquals(10000L, captor.getValue().getBalance());
+    assertEquals(0L, captor.getValue().getLastTransactionId());
+  }
+
+  @Test
+  void backfillSkippedInEventMode() {
+    //given
+    ReflectionTestUtils.setField(reconciliationService, "balanceMode", BalanceMode.EVENT);
+
+    //when
+    int created = reconciliationService.backfillOpeningCheckpoints();
+
+    //then
+    assertEquals(0, created);
+    verify(accountRepository, times(0)).findAccountIdsWithoutCheckpointAfter(anyLong(), any());
+  }
+
+  @Test
+  void projectWritesReplayedBalance() {
+    //given
+    AccountCheckpoint checkpoint = AccountCheckpoint.builder()
+        .accountId(1L)
+        .balance(10000L)
+        .lastTransactionAt(LocalDateTime.now().minusDays(1))
+        .lastTransactionId(5L)
+        .build();
+    given(accountCheckpointRepository.findById(anyLong())).willReturn(Optional.of(checkpoint));
+    given(transactionRepository.streamBalanceChangesAfter(anyLong(), any(), anyLong()))
+        .willReturn(Stream.of(
+            change(10L, LocalDateTime.now().minusHours(1), 1000L, 9000L),
+            change(11L, LocalDateTime.now(), 500L, 8500L)));
+
+    //when
+    Long balance = reconciliationService.project(1L);
+
+    //then
+    assertEquals(8500L, balance);
+    verify(accountRepository, times(1)).updateBalance(1L, 8500L);
+    // settle-lag 이내의 거래(11)는 체크포인트에 넣지 않는다.
+    assertEquals(9000L, checkpoint.getBalance());
+    assertEquals(10L, checkpoint.getLastTransactionId());
+  }
+}
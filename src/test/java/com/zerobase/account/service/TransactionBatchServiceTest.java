@@ -0,0 +1,126 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.UseBalance;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static com.zerobase.account.type.TransactionResultType.F;
+import static com.zerobase.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+  @Mock
+  private TransactionService transactionService;
+  @Mock
+  private LockService lockService;
+
+  @InjectMocks
+  private TransactionBatchService transactionBatchService;
+
+  private TransactionDto success(String accountNumber, Long amount) {
+    return TransactionDto.builder()
+        .accountNumber(accountNumber)
+        .transactionResultType(S)
+        .amount(amount)
+        .build();
+  }
+
+  @Test
+  void groupByAccountAndKeepOrder() {
+    //given
+    List<UseBalance.Request> requests = List.of(
+        new UseBalance.Request(1L, "1000000008", 100L),
+        new UseBalance.Request(2L, "1000000016", 200L),
+        new UseBalance.Request(1L, "1000000008", 300L));
+    given(transactionService.useBalances(eq("1000000008"), anyList()))
+        .willReturn(List.of(success("1000000008", 100L), success("1000000008", 300L)));
+    given(transactionService.useBalances(eq("1000000016"), anyList()))
+        .willReturn(List.of(success("1000000016", 200L)));
+
+    //when
+    List<TransactionDto> results = transactionBatchService.useBalances(requests);
+
+    //then
+    verify(lockService, times(1)).getLock(eq("1000000008"), any());
+    verify(lockService, times(1)).getLock(eq("1000000016"), any());
+    verify(lockService, times(1)).unLock("1000000008");
+    verify(lockService, times(1)).unLock("1000000016");
+    assertEquals(100L, results.get(0).getAmount());
+    assertEquals(200L, results.get(1).getAmount());
+    assertEquals(300L, results.get(2).getAmount());
+  }
+
+  @Test
+  void lockFailedGroupFails() {
+    //given
+    List<UseBalance.Request> requests = List.of(
+        new UseBalance.Request(1L, "1000000008", 100L),
+        new UseBalance.Request(1L, "1000000008", 300L));
+    willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+        .given(lockService).getLock(eq("1000000008"), any());
+
+    //when
+    List<TransactionDto> results = transactionBatchService.useBalances(requests);
+
+    //then
+    verify(transactionService, times(0)).useBalances(any(), anyList());
+    verify(lockService, times(0)).unLock(any());
+    assertEquals(2, results.size());
+    assertEquals(F, results.get(0).getTransactionResultType());
+    assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(1).getErrorCode());
+  }
+
+  @Test
+  void accountNotFoundGroupFails() {
+    //given
+    List<UseBalance.Request> requests = List.of(
+        new UseBalance.Request(1L, "1000000008", 100L));
+    given(transactionService.useBalances(eq("1000000008"), anyList()))
+        .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+    //when
+    List<TransactionDto> results = transactionBatchService.useBalances(requests);
+
+    //then
+    verify(lockService, times(1)).unLock("1000000008");
+    assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(0).getErrorCode());
+  }
+
+  @Test
+  void unexpectedErrorFailsOnlyItsGroup() {
+    //given
+    // 앞 그룹은 이미 커밋되었으므로 전체를 500 으로 돌려주지 않는다.
+    List<UseBalance.Request> requests = List.of(
+        new UseBalance.Request(1L, "1000000008", 100L),
+        new UseBalance.Request(2L, "1000000016", 200L));
+    given(transactionService.useBalances(eq("1000000008"), anyList()))
+        .willReturn(List.of(success("1000000008", 100L)));
+    given(transactionService.useBalances(eq("1000000016"), anyList()))
+        .willThrow(new IllegalStateException("db down"));
+
+    //when
+    List<TransactionDto> results = transactionBatchService.useBalances(requests);
+
+    //then
+    verify(lockService, times(1)).unLock("1000000016");
+    assertEquals(S, results.get(0).getTransactionResultType());
+    assertEquals(F, results.get(1).getTransactionResultType());
+    assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, results.get(1).getErrorCode());
+  }
+}
@@ -0,0 +1,94 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.dto.HistoryCursor;
+import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.TransactionSummary;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.TransactionRepository;
+import com.zerobase.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0, 0, 123456000);
+
+  @Mock
+  private TransactionRepository transactionRepository;
+  @Mock
+  private AccountMetadataCache accountMetadataCache;
+
+  @InjectMocks
+  private TransactionHistoryService transactionHistoryService;
+
+  private TransactionSummary transaction(long id) {
+    return new TransactionSummary(id, id, "1000000012", USE, S, 100L, 9900L,
+        NOW.minusSeconds(id));
+  }
+
+  @Test
+  void streamPageWithNextCursor() {
+    //given
+    given(transactionRepository.streamHistory(anyLong(), any()))
+        .willReturn(Stream.of(transaction(1), transaction(2), transaction(3)));
+    List<TransactionDto> streamed = new ArrayList<>();
+
+    //when
+    HistoryCursor next = transactionHistoryService.streamHistory(1L, null, 2, streamed::add);
+
+    //then
+    assertEquals(2, streamed.size());
+    assertEquals(2L, next.transactionId());
+    assertEquals(NOW.minusSeconds(2), next.transactionAt());
+    assertEquals("1000000012", streamed.get(0).getAccountNumber());
+  }
+
+  @Test
+  void streamLastPage() {
+    //given
+    HistoryCursor after = new HistoryCursor(NOW, 1L);
+    given(transactionRepository.streamHistoryAfter(anyLong(), any(), anyLong(), any()))
+        .willReturn(Stream.of(transaction(2), transaction(3)));
+    List<TransactionDto> streamed = new ArrayList<>();
+
+    //when
+    HistoryCursor next = transactionHistoryService.streamHistory(1L, after, 10, streamed::add);
+
+    //then
+    assertEquals(2, streamed.size());
+    assertNull(next);
+  }
+
+  @Test
+  void cursorRoundTrip() {
+    //given
+    HistoryCursor cursor = new HistoryCursor(NOW, 12345L);
+    //when
+    HistoryCursor decoded = transactionHistoryService.decodeCursor(cursor.encode());
+    //then
+    assertEquals(cursor, decoded);
+    assertNull(transactionHistoryService.decodeCursor(null));
+  }
+
+  @Test
+  void invalidCursor() {
+    AccountException exception = assertThrows(AccountException.class,
+        () -> transactionHistoryService.decodeCursor("not a cursor"));
+    assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+  }
+}
@@ -0,0 +1,43 @@
+package com.zerobase.account.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+  @Test
+  void increasingWithNodeId() {
+    //given
+    TransactionIdGenerator generator = new TransactionIdGenerator(5L);
+    //when
+    long previous = generator.next();
+    //then
+    for (int i = 0; i < 100_000; i++) {
+      long next = generator.next();
+      assertTrue(next > previous);
+      assertEquals(5L, (next >>> 12) & 0x3FF);
+      previous = next;
+    }
+  }
+
+  @Test
+  void uniqueAcrossThreads() {
+    //given
+    TransactionIdGenerator generator = new TransactionIdGenerator(0L);
+    Set<Long> keys = ConcurrentHashMap.newKeySet();
+    //when
+    IntStream.range(0, 200_000).parallel().forEach(i -> keys.add(generator.next()));
+    //then
+    assertEquals(200_000, keys.size());
+  }
+
+  @Test
+  void invalidNodeId() {
+    assertThrows(IllegalArgumentException.class, () -> new TransactionIdGenerator(1024L));
+  }
+}
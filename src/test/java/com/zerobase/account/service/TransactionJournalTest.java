@@ -0,0 +1,101 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.exception.AccountException;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.type.BalanceMode;
+import com.zerobase.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionJournalTest {
+  @Mock
+  private TransactionBatchRepository transactionBatchRepository;
+
+  @InjectMocks
+  private TransactionJournal transactionJournal;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(transactionJournal, "enabled", true);
+    transactionJournal.start();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    transactionJournal.stop();
+  }
+
+  private Transaction transaction() {
+    return Transaction.builder()
+        .account(Account.builder().accountId(1L).build())
+        .transactionType(USE)
+        .transactionResultType(S)
+        .amount(1000L)
+        .balanceSnapshot(9000L)
+        .transactionKey(1L)
+        .transactionAt(LocalDateTime.now())
+        .build();
+  }
+
+  @Test
+  void appendReturnsAfterCommit() throws SQLException {
+    //given
+    willAnswer(invocation -> {
+      List<Transaction> batch = invocation.getArgument(0);
+      batch.forEach(transaction -> transaction.setTransactionId(7L));
+      return null;
+    }).given(transactionBatchRepository).insertAll(anyList());
+
+    //when
+    Transaction saved = transactionJournal.append(transaction());
+
+    //then
+    assertEquals(7L, saved.getTransactionId());
+  }
+
+  @Test
+  void appendFailsWhenBatchFails() throws SQLException {
+    //given
+    willThrow(new SQLException("boom"))
+        .given(transactionBatchRepository).insertAll(anyList());
+
+    //when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> transactionJournal.append(transaction()));
+
+    //then
+    assertEquals(ErrorCode.INTERNAL_SERVER_ERROR, exception.getErrorCode());
+  }
+
+  @Test
+  void optimisticModeIsRejected() {
+    //given
+    TransactionJournal journal = new TransactionJournal(transactionBatchRepository);
+    ReflectionTestUtils.setField(journal, "enabled", true);
+    ReflectionTestUtils.setField(journal, "balanceMode", BalanceMode.OPTIMISTIC);
+
+    //when
+    //then
+    assertThrows(IllegalStateException.class, journal::start);
+  }
+}
@@ -0,0 +1,164 @@
+package com.zerobase.account.service;
+
+import com.zerobase.account.domain.Account;
+import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.domain.TransactionLogMarker;
+import com.zerobase.account.repository.TransactionBatchRepository;
+import com.zerobase.account.repository.TransactionLogMarkerRepository;
+import com.zerobase.account.repository.TransactionLogSegment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.zerobase.account.type.TransactionResultType.S;
+import static com.zerobase.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionLogTest {
+  @TempDir
+  Path dir;
+
+  @Mock
+  private TransactionBatchRepository transactionBatchRepository;
+  @Mock
+  private TransactionLogMarkerRepository transactionLogMarkerRepository;
+  @Mock
+  private TransactionTemplate transactionTemplate;
+  @Captor
+  private ArgumentCaptor<List<Transaction>> transactionsCaptor;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private TransactionLog transactionLog;
+
+  @BeforeEach
+  void setUp() {
+    transactionLog = new TransactionLog(transactionBatchRepository, meterRegistry,
+        transactionLogMarkerRepository, transactionTemplate);
+    ReflectionTestUtils.setField(transactionLog, "enabled", true);
+    ReflectionTestUtils.setField(transactionLog, "directory", dir.toString());
+    lenient().doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    transactionLog.stop();
+  }
+
+  private Transaction transaction(long transactionKey) {
+    return Transaction.builder()
+        .account(Account.builder().accountId(1L).build())
+        .transactionType(USE)
+        .transactionResultType(S)
+        .amount(1000L)
+        .balanceSnapshot(9000L)
+        .transactionKey(transactionKey)
+        .transactionAt(LocalDateTime.now())
+        .build();
+  }
+
+  @Test
+  void recoveredPreparedRecordsFollowCommitMarker() throws Exception {
+    //given
+    // 상태를 바꾸기 전에 종료된 세그먼트 : 1 은 DB 에 커밋되었고 2 는 롤백되었다.
+    try (TransactionLogSegment segment = TransactionLogSegment.open(
+        dir.resolve(String.format("transaction-%020d.log", 0L)), 0L, 4096)) {
+      segment.append(transaction(1L), TransactionLogSegment.PREPARED);
+      segment.append(transaction(2L), TransactionLogSegment.PREPARED);
+      segment.force();
+    }
+    given(transactionLogMarkerRepository.findAllById(List.of(1L, 2L)))
+        .willReturn(List.of(new TransactionLogMarker(1L)));
+    given(transactionBatchRepository.insertAllIfAbsent(anyList())).willReturn(1);
+
+    //when
+    transactionLog.start();
+
+    //then
+    verify(transactionBatchRepository, timeout(5000))
+        .insertAllIfAbsent(transactionsCaptor.capture());
+    assertEquals(1, transactionsCaptor.getValue().size());
+    assertEquals(1L, transactionsCaptor.getValue().get(0).getTransactionKey());
+    verify(transactionLogMarkerRepository, timeout(5000)).deleteAllByIdInBatch(List.of(1L));
+  }
+
+  @Test
+  void poisonRecordIsDeadLettered() throws Exception {
+    //given
+    // 2 는 항상 제약 조건 위반으로 실패한다.
+    ReflectionTestUtils.setField(transactionLog, "maxAttempts", 1);
+    try (TransactionLogSegment segment = TransactionLogSegment.open(
+        dir.resolve(String.format("transaction-%020d.log", 0L)), 0L, 4096)) {
+      segment.append(transaction(1L), TransactionLogSegment.COMMITTED);
+      segment.append(transaction(2L), TransactionLogSegment.COMMITTED);
+      segment.append(transaction(3L), TransactionLogSegment.COMMITTED);
+      segment.force();
+    }
+    given(transactionBatchRepository.insertAllIfAbsent(anyList())).willAnswer(invocation -> {
+      List<Transaction> transactions = invocation.getArgument(0);
+      if (transactions.stream().anyMatch(transaction -> transaction.getTransactionKey() == 2L)) {
+        throw new SQLIntegrityConstraintViolationException("poison");
+      }
+      return transactions.size();
+    });
+
+    //when
+    transactionLog.start();
+
+    //then
+    verify(transactionLogMarkerRepository, timeout(5000)).deleteAllByIdInBatch(List.of(3L));
+    assertEquals(1.0, meterRegistry.counter("account.transaction-log.dead-letters").count());
+    assertEquals(2.0, meterRegistry.counter("account.transaction-log.shipped").count());
+  }
+
+  @Test
+  void shipPendingInsertsUnshippedRecord() throws Exception {
+    //given
+    // shipper 는 계속 실패하므로 기록된 거래는 로그에만 남아 있다.
+    given(transactionBatchRepository.insertAllIfAbsent(anyList())).willAnswer(invocation -> {
+      if (Thread.currentThread().getName().equals("transaction-log-shipper")) {
+        throw new SQLException("boom");
+      }
+      return 1;
+    });
+    transactionLog.start();
+    transactionLog.append(transaction(1L));
+
+    //when
+    boolean shipped = transactionLog.shipPending(1L);
+
+    //then
+    assertTrue(shipped);
+    assertFalse(transactionLog.shipPending(1L));
+    assertFalse(transactionLog.shipPending(2L));
+  }
+}
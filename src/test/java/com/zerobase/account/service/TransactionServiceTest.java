@@ -2,22 +2,32 @@ package com.zerobase.account.service;
 
 import com.zerobase.account.domain.Account;
 import com.zerobase.account.domain.AccountUser;
+import com.zerobase.account.domain.Base62;
 import com.zerobase.account.domain.Transaction;
+import com.zerobase.account.dto.AccountMetadata;
 import com.zerobase.account.dto.TransactionDto;
+import com.zerobase.account.dto.TransactionSummary;
+import com.zerobase.account.dto.UseBalance;
 import com.zerobase.account.exception.AccountException;
 import com.zerobase.account.repository.AccountRepository;
 import com.zerobase.account.repository.AccountUserRepository;
 import com.zerobase.account.repository.TransactionRepository;
 import com.zerobase.account.type.AccountStatus;
+import com.zerobase.account.type.BalanceMode;
 import com.zerobase.account.type.ErrorCode;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static com.zerobase.account.type.ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
@@ -27,9 +37,11 @@ import static com.zerobase.account.type.TransactionResultType.S;
 import static com.zerobase.account.type.TransactionType.CANCEL;
 import static com.zerobase.account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -37,6 +49,7 @@ import static org.mockito.Mockito.verify;
 class TransactionServiceTest {
   public static final long AMOUNT_USE = 200L;
   public static final long AMOUNT_CANCEL = 200L;
+  public static final String TRANSACTION_ID = Base62.encode(1L);
 
   @Mock
   private TransactionRepository transactionRepository;
@@ -47,29 +60,51 @@ class TransactionServiceTest {
   @Mock
   private AccountUserRepository accountUserRepository;
 
+  @Mock
+  private BalanceLedger balanceLedger;
+
+  @Mock
+  private TransactionJournal transactionJournal;
+
+  @Mock
+  private TransactionLog transactionLog;
+
+  @Mock
+  private AccountMetadataCache accountMetadataCache;
+
+  @Mock
+  private TransactionIdGenerator transactionIdGenerator;
+
+  @Mock
+  private FailedTransactionRecorder failedTransactionRecorder;
+
   @InjectMocks
   private TransactionService transactionService;
 
+  @Captor
+  private ArgumentCaptor<List<Transaction>> transactionsCaptor;
+
   @Test
   void successUseBalance() {
     // given
     AccountUser user = AccountUser.builder()
         .accountUserId(1L).name("Pobi").build();
     Account account = Account.builder()
+        .accountId(1L)
         .accountUser(user)
         .accountStatus(AccountStatus.IN_USE)
         .balance(10000L)
         .accountNumber("1000000012").build();
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
         .willReturn(Optional.of(account));
     given(transactionRepository.save(any()))
         .willReturn(Transaction.builder()
             .account(account)
             .transactionType(USE)
             .transactionResultType(S)
-            .transactionUUID("transactionId")
+            .transactionKey(1L)
             .transactionAt(LocalDateTime.now())
             .amount(1000L)
             .balanceSnapshot(9000L)
@@ -82,6 +117,7 @@ class TransactionServiceTest {
         AMOUNT_USE);
 
     // then
+    verify(accountUserRepository, times(0)).findById(anyLong());
     verify(transactionRepository, times(1)).save(captor.capture());
     assertEquals(AMOUNT_USE, captor.getValue().getAmount());
     assertEquals(9800L, captor.getValue().getBalanceSnapshot());
@@ -91,9 +127,40 @@ class TransactionServiceTest {
     assertEquals(1000L, transactionDto.getAmount());
   }
 
+  @Test
+  void useBalance_transactionLog() {
+    // given
+    Account account = Account.builder()
+        .accountId(1L)
+        .accountUser(AccountUser.builder().accountUserId(1L).name("Pobi").build())
+        .accountStatus(AccountStatus.IN_USE)
+        .balance(10000L)
+        .accountNumber("1000000012").build();
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(account));
+    given(transactionIdGenerator.next()).willReturn(1L);
+    given(transactionLog.isEnabled()).willReturn(true);
+    given(transactionLog.append(any())).willAnswer(invocation -> invocation.getArgument(0));
+
+    // when
+    TransactionDto transactionDto = transactionService.useBalance(1L,
+        "1000000012",
+        AMOUNT_USE);
+
+    // then
+    verify(transactionRepository, times(0)).save(any());
+    verify(transactionLog, times(1)).append(any());
+    assertEquals(9800L, transactionDto.getBalanceSnapshot());
+    assertEquals(TRANSACTION_ID, transactionDto.getTransactionId());
+  }
+
   @Test
   void useBalance_UserNotFound() {
     // given
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 2L, AccountStatus.IN_USE));
     given(accountUserRepository.findById(anyLong()))
         .willReturn(Optional.empty());
     // when
@@ -107,12 +174,8 @@ class TransactionServiceTest {
   @Test
   void deleteAccount_AccountNotFound() {
     // given
-    AccountUser user = AccountUser.builder()
-        .accountUserId(1L).name("Pobi").build();
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.empty());
+    given(accountMetadataCache.get(anyString()))
+        .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
     // when
     AccountException exception = assertThrows(AccountException.class,
@@ -131,11 +194,9 @@ class TransactionServiceTest {
         .accountUserId(2L).name("Pikachu").build();
     given(accountUserRepository.findById(anyLong()))
         .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(Account.builder()
-            .accountUser(Pikachu)
-            .balance(0L)
-            .accountNumber("1000000012").build()));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, Pikachu.getAccountUserId(),
+            AccountStatus.IN_USE));
     // when
     AccountException exception = assertThrows(AccountException.class,
         () -> transactionService.useBalance(1L, "1000000000", 1000L));
@@ -149,14 +210,9 @@ class TransactionServiceTest {
     // given
     AccountUser pobi = AccountUser.builder()
         .accountUserId(1L).name("Pobi").build();
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.of(pobi));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(Account.builder()
-            .accountUser(pobi)
-            .accountStatus(AccountStatus.UNREGISTERED) //이미 계좌해지됨
-            .balance(0L)
-            .accountNumber("1000000012").build()));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, pobi.getAccountUserId(),
+            AccountStatus.UNREGISTERED)); //이미 계좌해지됨
     // when
     AccountException exception = assertThrows(AccountException.class,
         () -> transactionService.useBalance(1L, "1000000000", 1000L));
@@ -176,13 +232,13 @@ class TransactionServiceTest {
         .accountStatus(AccountStatus.IN_USE)
         .balance(100L)
         .accountNumber("1000000012").build();
-    given(accountUserRepository.findById(anyLong()))
-        .willReturn(Optional.of(user));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 12L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
         .willReturn(Optional.of(account));
 
     AccountException exception = assertThrows(AccountException.class,
-        () -> transactionService.useBalance(1L, "1000000000", 1000L));
+        () -> transactionService.useBalance(12L, "1000000000", 1000L));
     assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
     // then
     verify(transactionRepository, times(0)).save(any());
@@ -191,36 +247,14 @@ class TransactionServiceTest {
   @Test
   void saveFailedUseTransaction() {
     // given
-    AccountUser user = AccountUser.builder()
-        .accountUserId(12L).name("Pobi").build();
-    Account account = Account.builder()
-        .accountUser(user)
-        .accountStatus(AccountStatus.IN_USE)
-        .balance(10000L)
-        .accountNumber("1000000012").build();
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(account));
-    given(transactionRepository.save(any()))
-        .willReturn(Transaction.builder()
-            .account(account)
-            .transactionType(USE)
-            .transactionResultType(S)
-            .transactionUUID("transactionId")
-            .transactionAt(LocalDateTime.now())
-            .amount(1000L)
-            .balanceSnapshot(9000L)
-            .build());
-
-    ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+    given(failedTransactionRecorder.record(anyString(), anyLong())).willReturn(true);
 
     // when
     transactionService.saveFailedUseTransaction("1000000000", AMOUNT_USE);
 
     // then
-    verify(transactionRepository, times(1)).save(captor.capture());
-    assertEquals(AMOUNT_USE, captor.getValue().getAmount());
-    assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-    assertEquals(F, captor.getValue().getTransactionResultType());
+    verify(failedTransactionRecorder, times(1)).record("1000000000", AMOUNT_USE);
+    verify(transactionRepository, times(0)).save(any());
   }
 
   @Test
@@ -229,6 +263,7 @@ class TransactionServiceTest {
     AccountUser user = AccountUser.builder()
         .accountUserId(12L).name("Pobi").build();
     Account account = Account.builder()
+        .accountId(1L)
         .accountUser(user)
         .accountStatus(AccountStatus.IN_USE)
         .balance(10000L)
@@ -237,21 +272,23 @@ class TransactionServiceTest {
         .account(account)
         .transactionType(USE)
         .transactionResultType(S)
-        .transactionUUID("transactionId")
+        .transactionKey(1L)
         .transactionAt(LocalDateTime.now())
         .amount(AMOUNT_CANCEL)
         .balanceSnapshot(9000L)
         .build();
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.of(transaction));
-    given(accountRepository.findByAccountNumber(anyString()))
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 12L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
         .willReturn(Optional.of(account));
-    given(transactionRepository.save(any()))
+    given(transactionRepository.saveAndFlush(any()))
         .willReturn(Transaction.builder()
             .account(account)
             .transactionType(CANCEL)
             .transactionResultType(S)
-            .transactionUUID("transactionIdForCancel")
+            .transactionKey(2L)
             .transactionAt(LocalDateTime.now())
             .amount(AMOUNT_CANCEL)
             .balanceSnapshot(10000L)
@@ -259,12 +296,13 @@ class TransactionServiceTest {
     ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
 
     // when
-    TransactionDto transactionDto = transactionService.cancelBalance("transactionId",
+    TransactionDto transactionDto = transactionService.cancelBalance(TRANSACTION_ID,
         "1000000000", AMOUNT_CANCEL);
 
     // then
-    verify(transactionRepository, times(1)).save(captor.capture());
+    verify(transactionRepository, times(1)).saveAndFlush(captor.capture());
     assertEquals(AMOUNT_CANCEL, captor.getValue().getAmount());
+    assertSame(transaction, captor.getValue().getCanceledTransaction());
     assertEquals(10000L + AMOUNT_CANCEL, captor.getValue().getBalanceSnapshot());
     assertEquals(S, transactionDto.getTransactionResultType());
     assertEquals(CANCEL, transactionDto.getTransactionType());
@@ -272,24 +310,42 @@ class TransactionServiceTest {
     assertEquals(AMOUNT_CANCEL, transactionDto.getAmount());
   }
 
+  @Test
+  void cancelBalance_transactionLogShipsPendingOriginal() {
+    // given
+    // 원거래가 아직 로그에만 있으면 먼저 DB 로 옮긴 뒤 찾는다.
+    given(transactionLog.isEnabled()).willReturn(true);
+    given(transactionRepository.findByTransactionKey(anyLong()))
+        .willReturn(Optional.empty());
+
+    // when
+    assertThrows(AccountException.class,
+        () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000000", 1000L));
+
+    // then
+    InOrder inOrder = inOrder(transactionLog, transactionRepository);
+    inOrder.verify(transactionLog).shipPending(1L);
+    inOrder.verify(transactionRepository).findByTransactionKey(1L);
+  }
+
   @Test
   void cancelTransaction_Account_AccountNotFound() {
     // given
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.of(Transaction.builder()
             .transactionType(USE)
             .transactionResultType(S)
-            .transactionUUID("transactionId")
+            .transactionKey(1L)
             .transactionAt(LocalDateTime.now())
             .amount(AMOUNT_CANCEL)
             .balanceSnapshot(9000L)
             .build()));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.empty());
+    given(accountMetadataCache.get(anyString()))
+        .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
     // when
     AccountException exception = assertThrows(AccountException.class,
-        () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+        () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000000", 1000L));
 
     // then
     assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
@@ -298,12 +354,12 @@ class TransactionServiceTest {
   @Test
   void cancelTransaction_Account_TransactionNotFound() {
     // given
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.empty());
 
     // when
     AccountException exception = assertThrows(AccountException.class,
-        () -> transactionService.cancelBalance("transactionId", "1000000000", 1000L));
+        () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000000", 1000L));
 
     // then
     assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
@@ -329,19 +385,19 @@ class TransactionServiceTest {
         .account(account)
         .transactionType(USE)
         .transactionResultType(S)
-        .transactionUUID("transactionId")
+        .transactionKey(1L)
         .transactionAt(LocalDateTime.now())
         .amount(AMOUNT_CANCEL)
         .balanceSnapshot(9000L)
         .build();
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.of(transaction));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(accountNotUse));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(AccountMetadata.fromEntity(accountNotUse));
 
     // when
     AccountException exception = assertThrows(AccountException.class,
-        () -> transactionService.cancelBalance("transactionId", "1000000000", AMOUNT_CANCEL));
+        () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000000", AMOUNT_CANCEL));
     // then
     assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
   }
@@ -360,21 +416,21 @@ class TransactionServiceTest {
         .account(account)
         .transactionType(USE)
         .transactionResultType(S)
-        .transactionUUID("transactionId")
+        .transactionKey(1L)
         .transactionAt(LocalDateTime.now())
         .amount(AMOUNT_CANCEL + 1000L)
         .balanceSnapshot(9000L)
         .build();
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.of(transaction));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(account));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(AccountMetadata.fromEntity(account));
 
     // when
     AccountException exception = assertThrows(AccountException.class,
         () -> transactionService
             .cancelBalance(
-                "transactionId", "1000000000", AMOUNT_CANCEL
+                TRANSACTION_ID, "1000000000", AMOUNT_CANCEL
             )
     );
 
@@ -397,21 +453,21 @@ class TransactionServiceTest {
         .account(account)
         .transactionType(USE)
         .transactionResultType(S)
-        .transactionUUID("transactionId")
+        .transactionKey(1L)
         .transactionAt(LocalDateTime.now().minusYears(1).minusDays(1))
         .amount(AMOUNT_CANCEL)
         .balanceSnapshot(9000L)
         .build();
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findByTransactionKey(anyLong()))
         .willReturn(Optional.of(transaction));
-    given(accountRepository.findByAccountNumber(anyString()))
-        .willReturn(Optional.of(account));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(AccountMetadata.fromEntity(account));
 
     // when
     AccountException exception = assertThrows(AccountException.class,
         () -> transactionService
             .cancelBalance(
-                "transactionId", "1000000000", AMOUNT_CANCEL
+                TRANSACTION_ID, "1000000000", AMOUNT_CANCEL
             )
     );
 
@@ -422,23 +478,9 @@ class TransactionServiceTest {
   @Test
   void successQueryTransaction() {
     //given 
-    AccountUser user = AccountUser.builder()
-        .accountUserId(12L).name("Pobi").build();
-    Account account = Account.builder()
-        .accountId(1L).accountUser(user)
-        .accountStatus(AccountStatus.IN_USE)
-        .balance(10000L)
-        .accountNumber("1000000012").build();
-    Transaction transaction = Transaction.builder()
-        .account(account)
-        .transactionType(USE)
-        .transactionResultType(S)
-        .transactionUUID("transactionId")
-        .transactionAt(LocalDateTime.now().minusYears(1).minusDays(1))
-        .amount(AMOUNT_CANCEL)
-        .balanceSnapshot(9000L)
-        .build();
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    TransactionSummary transaction = new TransactionSummary(1L, 1L, "1000000012",
+        USE, S, AMOUNT_CANCEL, 9000L, LocalDateTime.now().minusYears(1).minusDays(1));
+    given(transactionRepository.findSummaryByTransactionKey(anyLong()))
         .willReturn(Optional.of(transaction));
     //when 
     TransactionDto transactionDto = transactionService.queryTransaction("trxId");
@@ -447,21 +489,190 @@ class TransactionServiceTest {
     assertEquals(USE, transactionDto.getTransactionType());
     assertEquals(S, transactionDto.getTransactionResultType());
     assertEquals(AMOUNT_CANCEL, transactionDto.getAmount());
-    assertEquals("transactionId", transactionDto.getTransactionId());
+    assertEquals(TRANSACTION_ID, transactionDto.getTransactionId());
+    assertEquals("1000000012", transactionDto.getAccountNumber());
   }
 
   @Test
   void queryTransaction_Account_TransactionNotFound() {
     // given
-    given(transactionRepository.findByTransactionUUID(anyString()))
+    given(transactionRepository.findSummaryByTransactionKey(anyLong()))
         .willReturn(Optional.empty());
 
     // when
     AccountException exception = assertThrows(AccountException.class,
-        () -> transactionService.queryTransaction("transactionId"));
+        () -> transactionService.queryTransaction(TRANSACTION_ID));
+
+    // then
+    assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
+  }
+
+  @Test
+  void queryTransaction_InvalidTransactionId() {
+    // given
+    // when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> transactionService.queryTransaction("not-a-transaction-id"));
 
     // then
     assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
+    verify(transactionRepository, times(0)).findSummaryByTransactionKey(anyLong());
+  }
+
+  @Test
+  void useBalancesInOrder() {
+    // given
+    AccountUser user = AccountUser.builder()
+        .accountUserId(1L).name("Pobi").build();
+    Account account = Account.builder()
+        .accountId(1L)
+        .accountUser(user)
+        .accountStatus(AccountStatus.IN_USE)
+        .balance(1000L)
+        .accountNumber("1000000012").build();
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(account));
+    given(transactionRepository.saveAll(anyList()))
+        .willAnswer(invocation -> invocation.getArgument(0));
+
+    // when
+    List<TransactionDto> results = transactionService.useBalances("1000000012", List.of(
+        new UseBalance.Request(1L, "1000000012", 600L),
+        new UseBalance.Request(1L, "1000000012", 600L),
+        new UseBalance.Request(1L, "1000000012", 400L)));
+
+    // then
+    verify(transactionRepository, times(1)).saveAll(transactionsCaptor.capture());
+    assertEquals(3, transactionsCaptor.getValue().size());
+    assertEquals(S, results.get(0).getTransactionResultType());
+    assertEquals(400L, results.get(0).getBalanceSnapshot());
+    assertEquals(F, results.get(1).getTransactionResultType());
+    assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+    assertEquals(S, results.get(2).getTransactionResultType());
+    assertEquals(0L, results.get(2).getBalanceSnapshot());
+    assertEquals(0L, account.getBalance());
+  }
+
+  @Test
+  void atomicUseBalance() {
+    // given
+    ReflectionTestUtils.setField(transactionService, "balanceMode", BalanceMode.ATOMIC);
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.debit(anyLong(), anyLong())).willReturn(1);
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(Account.builder()
+            .accountId(1L)
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(9800L)
+            .accountNumber("1000000012").build()));
+    given(transactionRepository.save(any()))
+        .willAnswer(invocation -> invocation.getArgument(0));
+
+    // when
+    TransactionDto transactionDto = transactionService.useBalance(1L,
+        "1000000012", AMOUNT_USE);
+
+    // then
+    verify(accountRepository, times(1)).debit(1L, AMOUNT_USE);
+    verify(transactionRepository, times(1)).save(any());
+    assertEquals(S, transactionDto.getTransactionResultType());
+    assertEquals(9800L, transactionDto.getBalanceSnapshot());
+    assertEquals("1000000012", transactionDto.getAccountNumber());
+  }
+
+  @Test
+  void atomicUseBalance_exceedBalance() {
+    // given
+    ReflectionTestUtils.setField(transactionService, "balanceMode", BalanceMode.ATOMIC);
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.debit(anyLong(), anyLong())).willReturn(0);
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(Account.builder()
+            .accountId(1L)
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(100L)
+            .accountNumber("1000000012").build()));
+
+    // when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> transactionService.useBalance(1L, "1000000012", AMOUNT_USE));
+
+    // then
+    assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    verify(transactionRepository, times(0)).save(any());
+  }
+
+  @Test
+  void atomicCancelBalance() {
+    // given
+    ReflectionTestUtils.setField(transactionService, "balanceMode", BalanceMode.ATOMIC);
+    given(transactionRepository.findByTransactionKey(anyLong()))
+        .willReturn(Optional.of(Transaction.builder()
+            .account(Account.builder().accountId(1L).build())
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionKey(1L)
+            .transactionAt(LocalDateTime.now())
+            .amount(AMOUNT_CANCEL)
+            .balanceSnapshot(9800L)
+            .build()));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.credit(anyLong(), anyLong())).willReturn(1);
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(Account.builder()
+            .accountId(1L)
+            .accountStatus(AccountStatus.IN_USE)
+            .balance(10000L)
+            .accountNumber("1000000012").build()));
+    given(transactionRepository.saveAndFlush(any()))
+        .willAnswer(invocation -> invocation.getArgument(0));
+
+    // when
+    TransactionDto transactionDto = transactionService.cancelBalance(TRANSACTION_ID,
+        "1000000012", AMOUNT_CANCEL);
+
+    // then
+    verify(accountRepository, times(1)).credit(1L, AMOUNT_CANCEL);
+    assertEquals(CANCEL, transactionDto.getTransactionType());
+    assertEquals(10000L, transactionDto.getBalanceSnapshot());
   }
 
-}
\ No newline at end of file
+  @Test
+  void cancelBalance_alreadyCanceled() {
+    // given
+    Account account = Account.builder()
+        .accountId(1L)
+        .accountStatus(AccountStatus.IN_USE)
+        .balance(10000L)
+        .accountNumber("1000000012").build();
+    given(transactionRepository.findByTransactionKey(anyLong()))
+        .willReturn(Optional.of(Transaction.builder()
+            .transactionId(1L)
+            .account(account)
+            .transactionType(USE)
+            .transactionResultType(S)
+            .transactionKey(1L)
+            .transactionAt(LocalDateTime.now())
+            .amount(AMOUNT_CANCEL)
+            .balanceSnapshot(9800L)
+            .build()));
+    given(accountMetadataCache.get(anyString()))
+        .willReturn(new AccountMetadata(1L, 1L, AccountStatus.IN_USE));
+    given(accountRepository.findById(anyLong()))
+        .willReturn(Optional.of(account));
+    given(transactionRepository.saveAndFlush(any()))
+        .willThrow(new DataIntegrityViolationException("ux_transaction_canceled_transaction_id"));
+
+    // when
+    AccountException exception = assertThrows(AccountException.class,
+        () -> transactionService.cancelBalance(TRANSACTION_ID, "1000000012", AMOUNT_CANCEL));
+
+    // then
+    assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+  }
+}